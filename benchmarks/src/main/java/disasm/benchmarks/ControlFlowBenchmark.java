@@ -0,0 +1,25 @@
+package disasm.benchmarks;
+
+import disasm.ControlFlowGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class ControlFlowBenchmark {
+    @Benchmark
+    public ControlFlowGraph buildGraph(ElfState state, InstructionCounter counter) {
+        counter.instructions += state.count;
+        return new ControlFlowGraph(state.disassembly);
+    }
+}
@@ -0,0 +1,39 @@
+package disasm.benchmarks;
+
+import disasm.InstructionDecoder;
+import disasm.SectionDisassembly;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class DecodeBenchmark {
+    @Benchmark
+    public long decode(ElfState state, InstructionCounter counter) {
+        InstructionDecoder decoder = InstructionDecoder.forXlen(state.parser.getXlen());
+        int[] commands = state.commands;
+        int[] lengths = state.lengths;
+        long result = 0;
+        for (int i = 0; i < commands.length; i++) {
+            result ^= decoder.decode(commands[i], lengths[i]);
+        }
+        counter.instructions += commands.length;
+        return result;
+    }
+
+    @Benchmark
+    public SectionDisassembly decodeSection(ElfState state, InstructionCounter counter) {
+        counter.instructions += state.count;
+        return new SectionDisassembly(state.parser, state.parser.getExecutableSections()[0]);
+    }
+}
@@ -0,0 +1,53 @@
+package disasm.benchmarks;
+
+import disasm.Disassembly;
+import disasm.ELFFile;
+import disasm.ELFParser;
+import disasm.SectionDisassembly;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@State(Scope.Benchmark)
+public class ElfState {
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public int instructions;
+
+    @Param({""})
+    public String file;
+
+    public ELFFile elf;
+    public ELFParser parser;
+    public Disassembly disassembly;
+    public int[] commands;
+    public int[] lengths;
+    public long[] addresses;
+    public int count;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        elf = file.isEmpty() ? new ELFFile(SyntheticElf.generate(instructions, 42)) : ELFFile.map(Path.of(file));
+        parser = new ELFParser(elf);
+        disassembly = new Disassembly(parser);
+        for (int i = 0; i < disassembly.getSectionCount(); i++) {
+            count += disassembly.getSection(i).getCount();
+        }
+        commands = new int[count];
+        lengths = new int[count];
+        addresses = new long[count];
+        int index = 0;
+        for (int i = 0; i < disassembly.getSectionCount(); i++) {
+            SectionDisassembly section = disassembly.getSection(i);
+            for (int j = 0; j < section.getCount(); j++, index++) {
+                commands[index] = section.getCommand(j);
+                lengths[index] = section.getLength(j);
+                addresses[index] = section.getTarget(j);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package disasm.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class InstructionCounter {
+    public long instructions;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        instructions = 0;
+    }
+}
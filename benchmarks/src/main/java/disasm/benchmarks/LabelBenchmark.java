@@ -0,0 +1,82 @@
+package disasm.benchmarks;
+
+import disasm.AsciiWriter;
+import disasm.LabelTable;
+import disasm.LongHashSet;
+import disasm.SymbolTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class LabelBenchmark {
+    @State(Scope.Thread)
+    public static class Output {
+        public AsciiWriter writer;
+
+        @Setup
+        public void setUp() {
+            writer = new AsciiWriter();
+        }
+    }
+
+    @Benchmark
+    public LabelTable buildLabels(ElfState state, InstructionCounter counter) {
+        LongHashSet targets = new LongHashSet();
+        for (int i = 0; i < state.disassembly.getSectionCount(); i++) {
+            targets.addAll(state.disassembly.getSection(i).getTargets());
+        }
+        counter.instructions += state.count;
+        return new LabelTable(state.parser.getSymbolTable(), targets);
+    }
+
+    @Benchmark
+    public int labelLookup(ElfState state, InstructionCounter counter) {
+        LabelTable labels = state.disassembly.getLabels();
+        int result = 0;
+        for (long address : state.addresses) {
+            result += labels.indexOf(address);
+        }
+        counter.instructions += state.addresses.length;
+        return result;
+    }
+
+    @Benchmark
+    public int symbolLookup(ElfState state, InstructionCounter counter) {
+        SymbolTable symbols = state.parser.getSymbolTable();
+        int result = 0;
+        for (long address : state.addresses) {
+            result += symbols.getAddressName(address).length();
+        }
+        counter.instructions += state.addresses.length;
+        return result;
+    }
+
+    @Benchmark
+    public int symbolReference(ElfState state, Output output, InstructionCounter counter) {
+        SymbolTable symbols = state.parser.getSymbolTable();
+        AsciiWriter writer = output.writer;
+        writer.reset();
+        for (long address : state.addresses) {
+            symbols.appendSymbolReference(writer, address);
+            if (writer.size() > AsciiWriter.DEFAULT_CAPACITY) {
+                writer.reset();
+            }
+        }
+        counter.instructions += state.addresses.length;
+        return writer.size();
+    }
+}
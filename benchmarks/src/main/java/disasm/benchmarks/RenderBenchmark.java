@@ -0,0 +1,56 @@
+package disasm.benchmarks;
+
+import disasm.AsciiWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class RenderBenchmark {
+    private static final WritableByteChannel DISCARD = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer source) {
+            int result = source.remaining();
+            source.position(source.limit());
+            return result;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Benchmark
+    public void render(ElfState state, InstructionCounter counter) throws Exception {
+        try (AsciiWriter writer = new AsciiWriter(DISCARD)) {
+            state.disassembly.write(writer, null);
+        }
+        counter.instructions += state.count;
+    }
+
+    @Benchmark
+    public void renderParallel(ElfState state, InstructionCounter counter) throws Exception {
+        try (AsciiWriter writer = new AsciiWriter(DISCARD)) {
+            state.disassembly.write(writer, ForkJoinPool.commonPool());
+        }
+        counter.instructions += state.count;
+    }
+}
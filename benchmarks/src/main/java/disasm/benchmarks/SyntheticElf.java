@@ -0,0 +1,127 @@
+package disasm.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+public final class SyntheticElf {
+    public static final long TEXT_ADDRESS = 0x10000;
+    public static final int FUNCTION_SIZE = 64;
+    private static final int HEADER_SIZE = 52;
+    private static final int SECTION_HEADER_SIZE = 40;
+    private static final int SYMBOL_SIZE = 16;
+    private static final byte[] SECTION_NAMES = "\0.text\0.symtab\0.strtab\0.shstrtab\0"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private SyntheticElf() {
+    }
+
+    public static ByteBuffer generate(int instructions, long seed) {
+        int functions = (instructions + FUNCTION_SIZE - 1) / FUNCTION_SIZE;
+        int textSize = instructions * 4;
+        int textOffset = HEADER_SIZE;
+        int symtabOffset = textOffset + textSize;
+        int symtabSize = (functions + 1) * SYMBOL_SIZE;
+        int strtabOffset = symtabOffset + symtabSize;
+        byte[][] names = new byte[functions][];
+        int strtabSize = 1;
+        for (int i = 0; i < functions; i++) {
+            names[i] = ("f" + i).getBytes(StandardCharsets.US_ASCII);
+            strtabSize += names[i].length + 1;
+        }
+        int shstrtabOffset = strtabOffset + strtabSize;
+        int sectionHeaderOffset = (shstrtabOffset + SECTION_NAMES.length + 3) & ~3;
+        ByteBuffer buffer = ByteBuffer.allocate(sectionHeaderOffset + 5 * SECTION_HEADER_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.put(new byte[]{0x7f, 'E', 'L', 'F', 1, 1, 1});
+        buffer.putShort(16, (short) 2).putShort(18, (short) 0xf3).putInt(20, 1)
+                .putInt(24, (int) TEXT_ADDRESS).putInt(32, sectionHeaderOffset)
+                .putShort(40, (short) HEADER_SIZE).putShort(46, (short) SECTION_HEADER_SIZE)
+                .putShort(48, (short) 5).putShort(50, (short) 4);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < instructions; i++) {
+            buffer.putInt(textOffset + i * 4, randomInstruction(random, i, instructions));
+        }
+
+        int symbol = symtabOffset + SYMBOL_SIZE;
+        int name = 1;
+        for (int i = 0; i < functions; i++) {
+            int size = Math.min(FUNCTION_SIZE, instructions - i * FUNCTION_SIZE) * 4;
+            buffer.putInt(symbol, name).putInt(symbol + 4, (int) TEXT_ADDRESS + i * FUNCTION_SIZE * 4)
+                    .putInt(symbol + 8, size).put(symbol + 12, (byte) 0x12).putShort(symbol + 14, (short) 1);
+            buffer.put(strtabOffset + name, names[i]);
+            symbol += SYMBOL_SIZE;
+            name += names[i].length + 1;
+        }
+        buffer.put(shstrtabOffset, SECTION_NAMES);
+
+        putSection(buffer, sectionHeaderOffset, 1, 1, 1, 0x6, TEXT_ADDRESS, textOffset, textSize, 0, 0, 4, 0);
+        putSection(buffer, sectionHeaderOffset, 2, 7, 2, 0, 0, symtabOffset, symtabSize, 3, 1, 4, SYMBOL_SIZE);
+        putSection(buffer, sectionHeaderOffset, 3, 15, 3, 0, 0, strtabOffset, strtabSize, 0, 0, 1, 0);
+        putSection(buffer, sectionHeaderOffset, 4, 23, 3, 0, 0, shstrtabOffset, SECTION_NAMES.length, 0, 0, 1, 0);
+        return buffer.clear();
+    }
+
+    private static void putSection(ByteBuffer buffer, int table, int index, int name, int type, int flags,
+                                   long address, int offset, int size, int link, int info, int align, int entrySize) {
+        int position = table + index * SECTION_HEADER_SIZE;
+        buffer.putInt(position, name).putInt(position + 4, type).putInt(position + 8, flags)
+                .putInt(position + 12, (int) address).putInt(position + 16, offset).putInt(position + 20, size)
+                .putInt(position + 24, link).putInt(position + 28, info).putInt(position + 32, align)
+                .putInt(position + 36, entrySize);
+    }
+
+    private static int randomInstruction(SplittableRandom random, int index, int count) {
+        int rd = random.nextInt(1, 32);
+        int rs1 = random.nextInt(32);
+        int rs2 = random.nextInt(32);
+        return switch (random.nextInt(10)) {
+            case 0, 1 -> iType(random.nextInt(-2048, 2048), rs1, 0, rd, 0x13);
+            case 2 -> rType(random.nextBoolean() ? 0x20 : 0, rs2, rs1, 0, rd, 0x33);
+            case 3 -> rType(1, rs2, rs1, random.nextInt(8), rd, 0x33);
+            case 4 -> iType(random.nextInt(-2048, 2048), rs1, 2, rd, 0x03);
+            case 5 -> sType(random.nextInt(-2048, 2048), rs2, rs1, 2);
+            case 6 -> bType(branchOffset(random, index, count), rs2, rs1, random.nextBoolean() ? 0 : 1);
+            case 7 -> jType(functionOffset(random, index, count), random.nextBoolean() ? 1 : 0);
+            case 8 -> (random.nextInt(1 << 20) << 12) | (rd << 7) | (random.nextBoolean() ? 0x37 : 0x17);
+            default -> iType(random.nextInt(32), rs1, random.nextBoolean() ? 1 : 5, rd, 0x13);
+        };
+    }
+
+    private static int branchOffset(SplittableRandom random, int index, int count) {
+        int target = Math.max(0, Math.min(count - 1, index + random.nextInt(-64, 64)));
+        return (target - index) * 4;
+    }
+
+    private static int functionOffset(SplittableRandom random, int index, int count) {
+        int target = Math.max(0, Math.min(count - 1, index + random.nextInt(-(1 << 16), 1 << 16)))
+                / FUNCTION_SIZE * FUNCTION_SIZE;
+        return (target - index) * 4;
+    }
+
+    private static int rType(int funct7, int rs2, int rs1, int funct3, int rd, int opcode) {
+        return (funct7 << 25) | (rs2 << 20) | (rs1 << 15) | (funct3 << 12) | (rd << 7) | opcode;
+    }
+
+    private static int iType(int immediate, int rs1, int funct3, int rd, int opcode) {
+        return (immediate << 20) | (rs1 << 15) | (funct3 << 12) | (rd << 7) | opcode;
+    }
+
+    private static int sType(int immediate, int rs2, int rs1, int funct3) {
+        return ((immediate >> 5) << 25) | (rs2 << 20) | (rs1 << 15) | (funct3 << 12)
+                | ((immediate & 0x1f) << 7) | 0x23;
+    }
+
+    private static int bType(int offset, int rs2, int rs1, int funct3) {
+        return (((offset >> 12) & 1) << 31) | (((offset >> 5) & 0x3f) << 25) | (rs2 << 20) | (rs1 << 15)
+                | (funct3 << 12) | (((offset >> 1) & 0xf) << 8) | (((offset >> 11) & 1) << 7) | 0x63;
+    }
+
+    private static int jType(int offset, int rd) {
+        return (((offset >> 20) & 1) << 31) | (((offset >> 1) & 0x3ff) << 21) | (((offset >> 11) & 1) << 20)
+                | (((offset >> 12) & 0xff) << 12) | (rd << 7) | 0x6f;
+    }
+}
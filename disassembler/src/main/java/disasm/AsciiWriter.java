@@ -0,0 +1,202 @@
+package disasm;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+public class AsciiWriter implements Flushable, Closeable {
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+    private static final byte[] UPPER_HEX_DIGITS = "0123456789ABCDEF".getBytes();
+    private final WritableByteChannel channel;
+    private ByteBuffer buffer;
+
+    public AsciiWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_CAPACITY);
+    }
+
+    public AsciiWriter(WritableByteChannel channel, int capacity) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+    }
+
+    public AsciiWriter() {
+        this.channel = null;
+        this.buffer = ByteBuffer.allocate(4096);
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        if (channel != null) {
+            flushBuffer();
+        }
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    public AsciiWriter put(char c) {
+        ensure(1);
+        buffer.put((byte) c);
+        return this;
+    }
+
+    public AsciiWriter put(String s) {
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buffer.put((byte) s.charAt(i));
+        }
+        return this;
+    }
+
+    public AsciiWriter put(byte[] bytes) {
+        return put(ByteBuffer.wrap(bytes));
+    }
+
+    public AsciiWriter put(AsciiWriter other) {
+        return put(other.buffer.duplicate().flip());
+    }
+
+    public AsciiWriter put(ByteBuffer source) {
+        if (channel != null && source.remaining() > buffer.capacity()) {
+            flushBuffer();
+            write(source);
+            return this;
+        }
+        ensure(source.remaining());
+        buffer.put(source);
+        return this;
+    }
+
+    public AsciiWriter putSpaces(int count) {
+        ensure(Math.max(count, 0));
+        for (int i = 0; i < count; i++) {
+            buffer.put((byte) ' ');
+        }
+        return this;
+    }
+
+    public AsciiWriter putHex(long value, int width) {
+        return putHex(value, width, HEX_DIGITS);
+    }
+
+    public AsciiWriter putUpperHex(long value, int width) {
+        return putHex(value, width, UPPER_HEX_DIGITS);
+    }
+
+    private AsciiWriter putHex(long value, int width, byte[] digits) {
+        int length = hexLength(value);
+        ensure(Math.max(length, width));
+        for (int i = length; i < width; i++) {
+            buffer.put((byte) '0');
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            buffer.put(digits[(int) (value >>> (i * 4)) & 0xf]);
+        }
+        return this;
+    }
+
+    public AsciiWriter putDecimal(long value) {
+        ensure(20);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                return put("9223372036854775808");
+            }
+            value = -value;
+        }
+        int length = decimalLength(value);
+        int end = buffer.position() + length;
+        for (int i = end - 1; i >= end - length; i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(end);
+        return this;
+    }
+
+    public static int hexLength(long value) {
+        return value == 0 ? 1 : (67 - Long.numberOfLeadingZeros(value)) / 4;
+    }
+
+    public static int decimalLength(long value) {
+        int length = value < 0 ? 2 : 1;
+        value = Math.abs(value / 10);
+        while (value != 0) {
+            value /= 10;
+            length++;
+        }
+        return length;
+    }
+
+    public int size() {
+        return buffer.position();
+    }
+
+    public void reset() {
+        buffer.clear();
+    }
+
+    public byte[] toByteArray() {
+        ByteBuffer source = buffer.duplicate().flip();
+        byte[] result = new byte[source.remaining()];
+        source.get(result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        ByteBuffer source = buffer.duplicate().flip();
+        char[] result = new char[source.remaining()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (char) (source.get() & 0xff);
+        }
+        return new String(result);
+    }
+
+    private void flushBuffer() {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer source) {
+        try {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (channel != null) {
+            try {
+                flushBuffer();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package disasm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+public class BatchDisassembler {
+    public static final String OUTPUT_SUFFIX = ".disasm";
+    private final Path outputDirectory;
+    private final int jobs;
+
+    public BatchDisassembler(Path outputDirectory, int jobs) {
+        this.outputDirectory = outputDirectory;
+        this.jobs = jobs;
+    }
+
+    public int run(List<String> inputs) throws IOException {
+        List<Path> collectedFiles = new ArrayList<>();
+        List<Path> collectedOutputs = new ArrayList<>();
+        for (String input : inputs) {
+            collectInputs(input, collectedFiles, collectedOutputs);
+        }
+        List<Path> files = new ArrayList<>();
+        List<Path> outputs = new ArrayList<>();
+        resolveOutputs(collectedFiles, collectedOutputs, files, outputs);
+
+        ExecutorService executor = Executors.newFixedThreadPool(jobs);
+        try {
+            List<Future<?>> results = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                Path file = files.get(i);
+                Path output = outputDirectory.resolve(outputs.get(i) + OUTPUT_SUFFIX);
+                results.add(executor.submit(() -> {
+                    disassemble(file, output);
+                    return null;
+                }));
+            }
+
+            int failed = 0;
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    System.err.println(files.get(i) + ": " + describe(e.getCause()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted", e);
+                }
+            }
+            System.out.println("Disassembled " + (files.size() - failed) + " of " + files.size() + " files");
+            return failed;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String describe(Throwable e) {
+        return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+    }
+
+    private static void collectInputs(String input, List<Path> files, List<Path> outputs) throws IOException {
+        if (input.startsWith("@")) {
+            try (Stream<String> lines = Files.lines(Path.of(input.substring(1)))) {
+                for (String line : (Iterable<String>) lines.map(String::strip).filter(s -> !s.isEmpty())::iterator) {
+                    collectInputs(line, files, outputs);
+                }
+            }
+            return;
+        }
+
+        Path path = Path.of(input);
+        if (!Files.isDirectory(path)) {
+            files.add(path);
+            outputs.add(path.getFileName());
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(path)) {
+            for (Path file : (Iterable<Path>) walk.filter(Files::isRegularFile).sorted()::iterator) {
+                files.add(file);
+                outputs.add(path.relativize(file));
+            }
+        }
+    }
+
+    private static void resolveOutputs(List<Path> collectedFiles, List<Path> collectedOutputs,
+                                       List<Path> files, List<Path> outputs) {
+        Set<Path> inputs = new HashSet<>();
+        Set<Path> used = new HashSet<>();
+        for (int i = 0; i < collectedFiles.size(); i++) {
+            Path file = collectedFiles.get(i);
+            if (!inputs.add(file.toAbsolutePath().normalize())) {
+                continue;
+            }
+            Path base = collectedOutputs.get(i).normalize();
+            Path output = base;
+            for (int n = 2; !used.add(output); n++) {
+                output = base.resolveSibling(base.getFileName() + "~" + n);
+            }
+            files.add(file);
+            outputs.add(output);
+        }
+    }
+
+    private static void disassemble(Path input, Path output) throws IOException {
+        ELFParser parser;
+        try {
+            parser = new ELFParser(ELFFile.map(input));
+        } catch (RuntimeException | AssertionError e) {
+            throw new IOException("Input error: " + describe(e), e);
+        }
+        Disassembly disassembly = new Disassembly(parser);
+
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (AsciiWriter writer = new AsciiWriter(FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), 1 << 16)) {
+            disassembly.write(writer, null);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
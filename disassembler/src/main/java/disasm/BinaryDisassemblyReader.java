@@ -0,0 +1,151 @@
+package disasm;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class BinaryDisassemblyReader {
+    private final ELFFile file;
+    private final int xlen;
+    private final int count;
+    private final int stringTable;
+    private int record;
+    private int position;
+
+    public BinaryDisassemblyReader(ELFFile file) {
+        if (file.size() < BinaryDisassemblyWriter.HEADER_SIZE
+                || file.getWord(0) != BinaryDisassemblyWriter.MAGIC
+                || file.getWord(4) != BinaryDisassemblyWriter.VERSION
+                || file.getWord(24) != BinaryDisassemblyWriter.RECORD_SIZE) {
+            throw new UnsupportedOperationException("Unsupported file format");
+        }
+        this.file = file;
+        this.xlen = file.getWord(8);
+        this.count = file.getWord(12);
+        long stringTable = file.getDoubleWord(16);
+        if (count < 0 || stringTable != BinaryDisassemblyWriter.HEADER_SIZE
+                + (long) count * BinaryDisassemblyWriter.RECORD_SIZE || stringTable > file.size()) {
+            throw new UnsupportedOperationException("Corrupted record table");
+        }
+        this.stringTable = (int) stringTable;
+        seek(-1);
+    }
+
+    public static BinaryDisassemblyReader open(Path path) throws IOException {
+        return new BinaryDisassemblyReader(ELFFile.map(path));
+    }
+
+    public int getXlen() {
+        return xlen;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void seek(int record) {
+        if (record < -1 || record >= count) {
+            throw new IndexOutOfBoundsException(record);
+        }
+        this.record = record;
+        this.position = BinaryDisassemblyWriter.HEADER_SIZE + record * BinaryDisassemblyWriter.RECORD_SIZE;
+    }
+
+    public boolean next() {
+        if (record + 1 >= count) {
+            return false;
+        }
+        record++;
+        position += BinaryDisassemblyWriter.RECORD_SIZE;
+        return true;
+    }
+
+    public int getRecord() {
+        return record;
+    }
+
+    public long getAddress() {
+        return file.getDoubleWord(position + BinaryDisassemblyWriter.ADDRESS);
+    }
+
+    public long getReference() {
+        return file.getDoubleWord(position + BinaryDisassemblyWriter.REFERENCE);
+    }
+
+    public int getCommand() {
+        return file.getWord(position + BinaryDisassemblyWriter.COMMAND);
+    }
+
+    public int getImmediate() {
+        return file.getWord(position + BinaryDisassemblyWriter.IMMEDIATE);
+    }
+
+    public int getSymbol() {
+        return file.getWord(position + BinaryDisassemblyWriter.SYMBOL);
+    }
+
+    public int getSymbolOffset() {
+        return file.getWord(position + BinaryDisassemblyWriter.SYMBOL_OFFSET);
+    }
+
+    public int getLabel() {
+        return file.getWord(position + BinaryDisassemblyWriter.LABEL);
+    }
+
+    public int getSection() {
+        return file.getWord(position + BinaryDisassemblyWriter.SECTION);
+    }
+
+    public int getMnemonicId() {
+        return file.getHalf(position + BinaryDisassemblyWriter.MNEMONIC);
+    }
+
+    public Mnemonic getMnemonic() {
+        return Mnemonic.of(getMnemonicId());
+    }
+
+    public int getLength() {
+        return file.getByte(position + BinaryDisassemblyWriter.LENGTH);
+    }
+
+    public int getRd() {
+        return file.getByte(position + BinaryDisassemblyWriter.RD);
+    }
+
+    public int getRs1() {
+        return file.getByte(position + BinaryDisassemblyWriter.RS1);
+    }
+
+    public int getRs2() {
+        return file.getByte(position + BinaryDisassemblyWriter.RS2);
+    }
+
+    public int getRs3() {
+        return file.getByte(position + BinaryDisassemblyWriter.RS3);
+    }
+
+    public int getRm() {
+        return file.getByte(position + BinaryDisassemblyWriter.RM);
+    }
+
+    public int getFlags() {
+        return file.getHalf(position + BinaryDisassemblyWriter.FLAGS);
+    }
+
+    public long getInstruction() {
+        return DecodedInstruction.pack(getMnemonicId(), getRd(), getRs1(), getRs2(), getRs3(), getRm(),
+                getImmediate());
+    }
+
+    public String getString(int offset) {
+        return offset == BinaryDisassemblyWriter.NO_STRING ? "" : file.getString(stringTable + offset);
+    }
+
+    public void appendString(AsciiWriter out, int offset) {
+        if (offset == BinaryDisassemblyWriter.NO_STRING) {
+            return;
+        }
+        for (int i = stringTable + offset; file.getByte(i) != 0; i++) {
+            out.put((char) file.getByte(i));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package disasm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+public class BinaryDisassemblyWriter implements Closeable {
+    public static final int MAGIC = 0x42445652;
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 56;
+    public static final int ADDRESS = 0;
+    public static final int REFERENCE = 8;
+    public static final int COMMAND = 16;
+    public static final int IMMEDIATE = 20;
+    public static final int SYMBOL = 24;
+    public static final int SYMBOL_OFFSET = 28;
+    public static final int LABEL = 32;
+    public static final int SECTION = 36;
+    public static final int MNEMONIC = 40;
+    public static final int LENGTH = 42;
+    public static final int RD = 43;
+    public static final int RS1 = 44;
+    public static final int RS2 = 45;
+    public static final int FLAGS = 46;
+    public static final int RS3 = 48;
+    public static final int RM = 49;
+    public static final int FLAG_TARGET = 1;
+    public static final int FLAG_MATERIALIZED = 2;
+    public static final int NO_STRING = -1;
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final AsciiWriter strings = new AsciiWriter();
+    private final Map<String, Integer> stringOffsets = new HashMap<>();
+
+    public BinaryDisassemblyWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(AsciiWriter.DEFAULT_CAPACITY).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public void write(Disassembly disassembly) throws IOException {
+        int count = 0;
+        for (int i = 0; i < disassembly.getSectionCount(); i++) {
+            count += disassembly.getSection(i).getCount();
+        }
+        buffer.putInt(MAGIC).putInt(VERSION)
+                .putInt(disassembly.getParser().getXlen()).putInt(count)
+                .putLong(HEADER_SIZE + (long) count * RECORD_SIZE)
+                .putInt(RECORD_SIZE).putInt(0);
+
+        SymbolTable symbols = disassembly.getLabels().getSymbolTable();
+        for (int s = 0; s < disassembly.getSectionCount(); s++) {
+            SectionDisassembly section = disassembly.getSection(s);
+            LabelTable labels = disassembly.getLabels().forSection(section.getSection());
+            SymbolIndex addressIndex = symbols.getAddressIndex(section.getSection());
+            int sectionName = addString(section.getName());
+            for (int i = 0; i < section.getCount(); i++) {
+                long address = section.getAddress(i);
+                long instruction = section.getInstruction(i);
+                long reference = 0;
+                int flags = 0;
+                switch (DecodedInstruction.getMnemonic(instruction).getFormat()) {
+                    case BRANCH, JAL -> {
+                        reference = section.getTarget(i);
+                        flags = FLAG_TARGET;
+                    }
+                    default -> {
+                        if (section.hasMaterializedAddress(i)) {
+                            reference = section.getMaterializedAddress(i);
+                            flags = FLAG_MATERIALIZED;
+                        }
+                    }
+                }
+                int symbol = NO_STRING;
+                long symbolOffset = 0;
+                if (flags != 0) {
+                    int label = labels.indexOf(reference);
+                    int position = addressIndex.indexContaining(reference);
+                    if (label >= 0) {
+                        symbol = addString(labels.getName(label));
+                    } else if (position >= 0) {
+                        symbol = addString(symbols.getSymbolName(addressIndex.getSymbol(position)));
+                        symbolOffset = reference - addressIndex.getAddress(position);
+                    }
+                }
+                String label = labels.getAddressLabel(address);
+
+                ensure(RECORD_SIZE);
+                buffer.putLong(address).putLong(reference)
+                        .putInt(section.getCommand(i)).putInt(DecodedInstruction.getImmediate(instruction))
+                        .putInt(symbol).putInt((int) symbolOffset)
+                        .putInt(label.isEmpty() ? NO_STRING : addString(label)).putInt(sectionName)
+                        .putShort((short) DecodedInstruction.getId(instruction))
+                        .put((byte) section.getLength(i))
+                        .put((byte) DecodedInstruction.getRd(instruction))
+                        .put((byte) DecodedInstruction.getRs1(instruction))
+                        .put((byte) DecodedInstruction.getRs2(instruction))
+                        .putShort((short) flags)
+                        .put((byte) DecodedInstruction.getRs3(instruction))
+                        .put((byte) DecodedInstruction.getRm(instruction))
+                        .putShort((short) 0).putInt(0);
+            }
+        }
+        flushBuffer();
+        ByteBuffer table = ByteBuffer.wrap(strings.toByteArray());
+        while (table.hasRemaining()) {
+            channel.write(table);
+        }
+    }
+
+    private int addString(String value) {
+        Integer offset = stringOffsets.get(value);
+        if (offset == null) {
+            offset = strings.size();
+            strings.put(value).put('\0');
+            stringOffsets.put(value, offset);
+        }
+        return offset;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,174 @@
+package disasm;
+
+public final class CompressedDecoder {
+    private CompressedDecoder() {
+    }
+
+    private static int bits(int command, int high, int low) {
+        return (command >>> low) & ((1 << (high - low + 1)) - 1);
+    }
+
+    private static int signExtend(int value, int width) {
+        return (value << (32 - width)) >> (32 - width);
+    }
+
+    private static int getRegister(int command, int low) {
+        return bits(command, low + 2, low) + 8;
+    }
+
+    private static int getImmediateCI(int command) {
+        return signExtend((bits(command, 12, 12) << 5) | bits(command, 6, 2), 6);
+    }
+
+    private static int getImmediateCJ(int command) {
+        return signExtend((bits(command, 12, 12) << 11)
+                | (bits(command, 11, 11) << 4)
+                | (bits(command, 10, 9) << 8)
+                | (bits(command, 8, 8) << 10)
+                | (bits(command, 7, 7) << 6)
+                | (bits(command, 6, 6) << 7)
+                | (bits(command, 5, 3) << 1)
+                | (bits(command, 2, 2) << 5), 12);
+    }
+
+    private static int getImmediateCB(int command) {
+        return signExtend((bits(command, 12, 12) << 8)
+                | (bits(command, 11, 10) << 3)
+                | (bits(command, 6, 5) << 6)
+                | (bits(command, 4, 3) << 1)
+                | (bits(command, 2, 2) << 5), 9);
+    }
+
+    private static int getWordOffsetCL(int command) {
+        return (bits(command, 12, 10) << 3) | (bits(command, 6, 6) << 2) | (bits(command, 5, 5) << 6);
+    }
+
+    private static long pack(Mnemonic mnemonic, int rd, int rs1, int rs2, int immediate) {
+        return DecodedInstruction.pack(mnemonic.ordinal(), rd, rs1, rs2, immediate);
+    }
+
+    private static long unknown() {
+        return pack(Mnemonic.UNKNOWN, 0, 0, 0, 0);
+    }
+
+    private static int getDoubleWordOffsetCL(int command) {
+        return (bits(command, 12, 10) << 3) | (bits(command, 6, 5) << 6);
+    }
+
+    private static int getWordOffsetCI(int command) {
+        return (bits(command, 12, 12) << 5) | (bits(command, 6, 4) << 2) | (bits(command, 3, 2) << 6);
+    }
+
+    private static int getDoubleWordOffsetCI(int command) {
+        return (bits(command, 12, 12) << 5) | (bits(command, 6, 5) << 3) | (bits(command, 4, 2) << 6);
+    }
+
+    private static int getWordOffsetCSS(int command) {
+        return (bits(command, 12, 9) << 2) | (bits(command, 8, 7) << 6);
+    }
+
+    private static int getDoubleWordOffsetCSS(int command) {
+        return (bits(command, 12, 10) << 3) | (bits(command, 9, 7) << 6);
+    }
+
+    public static long decode(int command, int xlen) {
+        boolean rv64 = xlen == 64;
+        int rd = bits(command, 11, 7);
+        int rs2 = bits(command, 6, 2);
+        return switch ((bits(command, 1, 0) << 3) | bits(command, 15, 13)) {
+            case 0b00_000 -> {
+                int immediate = (bits(command, 12, 11) << 4) | (bits(command, 10, 7) << 6)
+                        | (bits(command, 6, 6) << 2) | (bits(command, 5, 5) << 3);
+                yield immediate == 0 ? unknown() : pack(Mnemonic.ADDI, getRegister(command, 2), 2, 0, immediate);
+            }
+            case 0b00_001 -> pack(Mnemonic.FLD, getRegister(command, 2), getRegister(command, 7), 0,
+                    getDoubleWordOffsetCL(command));
+            case 0b00_010 -> pack(Mnemonic.LW, getRegister(command, 2), getRegister(command, 7), 0,
+                    getWordOffsetCL(command));
+            case 0b00_011 -> rv64 ? pack(Mnemonic.LD, getRegister(command, 2), getRegister(command, 7), 0,
+                    getDoubleWordOffsetCL(command)) : pack(Mnemonic.FLW, getRegister(command, 2),
+                    getRegister(command, 7), 0, getWordOffsetCL(command));
+            case 0b00_101 -> pack(Mnemonic.FSD, 0, getRegister(command, 7), getRegister(command, 2),
+                    getDoubleWordOffsetCL(command));
+            case 0b00_110 -> pack(Mnemonic.SW, 0, getRegister(command, 7), getRegister(command, 2),
+                    getWordOffsetCL(command));
+            case 0b00_111 -> rv64 ? pack(Mnemonic.SD, 0, getRegister(command, 7), getRegister(command, 2),
+                    getDoubleWordOffsetCL(command)) : pack(Mnemonic.FSW, 0, getRegister(command, 7),
+                    getRegister(command, 2), getWordOffsetCL(command));
+            case 0b01_000 -> pack(Mnemonic.ADDI, rd, rd, 0, getImmediateCI(command));
+            case 0b01_001 -> {
+                if (!rv64) {
+                    yield pack(Mnemonic.JAL, 1, 0, 0, getImmediateCJ(command));
+                }
+                yield rd == 0 ? unknown() : pack(Mnemonic.ADDIW, rd, rd, 0, getImmediateCI(command));
+            }
+            case 0b01_010 -> pack(Mnemonic.ADDI, rd, 0, 0, getImmediateCI(command));
+            case 0b01_011 -> {
+                if (rd == 2) {
+                    int immediate = signExtend((bits(command, 12, 12) << 9) | (bits(command, 6, 6) << 4)
+                            | (bits(command, 5, 5) << 6) | (bits(command, 4, 3) << 7)
+                            | (bits(command, 2, 2) << 5), 10);
+                    yield immediate == 0 ? unknown() : pack(Mnemonic.ADDI, 2, 2, 0, immediate);
+                }
+                int immediate = getImmediateCI(command) << 12;
+                yield immediate == 0 ? unknown() : pack(Mnemonic.LUI, rd, 0, 0, immediate);
+            }
+            case 0b01_100 -> decodeArithmetic(command, rv64);
+            case 0b01_101 -> pack(Mnemonic.JAL, 0, 0, 0, getImmediateCJ(command));
+            case 0b01_110 -> pack(Mnemonic.BEQ, 0, getRegister(command, 7), 0, getImmediateCB(command));
+            case 0b01_111 -> pack(Mnemonic.BNE, 0, getRegister(command, 7), 0, getImmediateCB(command));
+            case 0b10_000 -> pack(Mnemonic.SLLI, rd, rd, 0, (bits(command, 12, 12) << 5) | rs2);
+            case 0b10_001 -> pack(Mnemonic.FLD, rd, 2, 0, getDoubleWordOffsetCI(command));
+            case 0b10_010 -> rd == 0 ? unknown() : pack(Mnemonic.LW, rd, 2, 0, getWordOffsetCI(command));
+            case 0b10_011 -> {
+                if (!rv64) {
+                    yield pack(Mnemonic.FLW, rd, 2, 0, getWordOffsetCI(command));
+                }
+                yield rd == 0 ? unknown() : pack(Mnemonic.LD, rd, 2, 0, getDoubleWordOffsetCI(command));
+            }
+            case 0b10_100 -> {
+                if (bits(command, 12, 12) == 0) {
+                    if (rs2 == 0) {
+                        yield rd == 0 ? unknown() : pack(Mnemonic.JALR, 0, rd, 0, 0);
+                    }
+                    yield pack(Mnemonic.ADD, rd, 0, rs2, 0);
+                }
+                if (rs2 == 0) {
+                    yield rd == 0 ? pack(Mnemonic.EBREAK, 0, 0, 0, 0) : pack(Mnemonic.JALR, 1, rd, 0, 0);
+                }
+                yield pack(Mnemonic.ADD, rd, rd, rs2, 0);
+            }
+            case 0b10_101 -> pack(Mnemonic.FSD, 0, 2, rs2, getDoubleWordOffsetCSS(command));
+            case 0b10_110 -> pack(Mnemonic.SW, 0, 2, rs2, getWordOffsetCSS(command));
+            case 0b10_111 -> rv64 ? pack(Mnemonic.SD, 0, 2, rs2, getDoubleWordOffsetCSS(command))
+                    : pack(Mnemonic.FSW, 0, 2, rs2, getWordOffsetCSS(command));
+            default -> unknown();
+        };
+    }
+
+    private static long decodeArithmetic(int command, boolean rv64) {
+        int rd = getRegister(command, 7);
+        int rs2 = getRegister(command, 2);
+        int shift = (bits(command, 12, 12) << 5) | bits(command, 6, 2);
+        return switch (bits(command, 11, 10)) {
+            case 0b00 -> pack(Mnemonic.SRLI, rd, rd, 0, shift);
+            case 0b01 -> pack(Mnemonic.SRAI, rd, rd, 0, shift);
+            case 0b10 -> pack(Mnemonic.ANDI, rd, rd, 0, getImmediateCI(command));
+            default -> {
+                if (bits(command, 12, 12) != 0) {
+                    yield switch (rv64 ? bits(command, 6, 5) : -1) {
+                        case 0b00 -> pack(Mnemonic.SUBW, rd, rd, rs2, 0);
+                        case 0b01 -> pack(Mnemonic.ADDW, rd, rd, rs2, 0);
+                        default -> unknown();
+                    };
+                }
+                yield switch (bits(command, 6, 5)) {
+                    case 0b00 -> pack(Mnemonic.SUB, rd, rd, rs2, 0);
+                    case 0b01 -> pack(Mnemonic.XOR, rd, rd, rs2, 0);
+                    case 0b10 -> pack(Mnemonic.OR, rd, rd, rs2, 0);
+                    default -> pack(Mnemonic.AND, rd, rd, rs2, 0);
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,628 @@
+package disasm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+public class ControlFlowGraph {
+    public static final int MAGIC = 0x47465652;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int FUNCTION_RECORD_SIZE = 32;
+    public static final int BLOCK_RECORD_SIZE = 32;
+    public static final int EDGE_RECORD_SIZE = 8;
+    public static final int CALL_RECORD_SIZE = 24;
+    public static final int NO_FUNCTION = -1;
+    public static final int NO_STRING = -1;
+    public static final byte BLOCK_FALLTHROUGH = 0;
+    public static final byte BLOCK_BRANCH = 1;
+    public static final byte BLOCK_JUMP = 2;
+    public static final byte BLOCK_RETURN = 3;
+    public static final byte BLOCK_INDIRECT = 4;
+    public static final byte EDGE_FALLTHROUGH = 0;
+    public static final byte EDGE_TAKEN = 1;
+    public static final byte EDGE_JUMP = 2;
+    private static final int RA = 1;
+
+    private final Disassembly disassembly;
+    private final SymbolTable symbols;
+    private final int[] sectionFirstBlocks;
+    private final int[] sectionFirstFunctions;
+    private final long[] functionAddresses;
+    private final long[] functionEnds;
+    private final int[] functionSymbols;
+    private final int[] functionFirstBlocks;
+    private final int[] functionBlockCounts;
+    private final long[] blockAddresses;
+    private final int[] blockSizes;
+    private final int[] blockFirstInstructions;
+    private final int[] blockInstructionCounts;
+    private final int[] blockFunctions;
+    private final byte[] blockKinds;
+    private final int[] edgeOffsets;
+    private int[] edgeTargets;
+    private byte[] edgeKinds;
+    private int edgeCount = 0;
+    private int[] callBlocks = new int[16];
+    private long[] callAddresses = new long[16];
+    private long[] callTargets = new long[16];
+    private int callCount = 0;
+
+    public ControlFlowGraph(Disassembly disassembly) {
+        long start = Metrics.start();
+        long allocation = Metrics.startAllocation();
+        this.disassembly = disassembly;
+        this.symbols = disassembly.getParser().getSymbolTable();
+        int sectionCount = disassembly.getSectionCount();
+        HalfwordSet[] instructionStarts = new HalfwordSet[sectionCount];
+        HalfwordSet[] leaders = new HalfwordSet[sectionCount];
+        long[][] starts = new long[sectionCount][];
+        sectionFirstBlocks = new int[sectionCount + 1];
+        sectionFirstFunctions = new int[sectionCount + 1];
+        for (int s = 0; s < sectionCount; s++) {
+            SectionDisassembly section = disassembly.getSection(s);
+            instructionStarts[s] = findInstructionStarts(section);
+            leaders[s] = new HalfwordSet(getHalfwordCount(section));
+            starts[s] = findLeaders(section, instructionStarts[s], leaders[s]);
+            sectionFirstFunctions[s + 1] = sectionFirstFunctions[s] + starts[s].length;
+            sectionFirstBlocks[s + 1] = sectionFirstBlocks[s] + leaders[s].count();
+        }
+
+        int functionCount = sectionFirstFunctions[sectionCount];
+        functionAddresses = new long[functionCount];
+        functionEnds = new long[functionCount];
+        functionSymbols = new int[functionCount];
+        functionFirstBlocks = new int[functionCount];
+        functionBlockCounts = new int[functionCount];
+        int blockCount = sectionFirstBlocks[sectionCount];
+        blockAddresses = new long[blockCount];
+        blockSizes = new int[blockCount];
+        blockFirstInstructions = new int[blockCount];
+        blockInstructionCounts = new int[blockCount];
+        blockFunctions = new int[blockCount];
+        blockKinds = new byte[blockCount];
+        edgeOffsets = new int[blockCount + 1];
+        edgeTargets = new int[Math.max(16, blockCount)];
+        edgeKinds = new byte[edgeTargets.length];
+
+        for (int s = 0; s < sectionCount; s++) {
+            SectionDisassembly section = disassembly.getSection(s);
+            addFunctions(section, starts[s], sectionFirstFunctions[s]);
+            addBlocks(s, section, instructionStarts[s], leaders[s]);
+            assignFunctions(s);
+        }
+        Metrics.end(Metrics.Phase.CONTROL_FLOW, start, allocation);
+    }
+
+    private static int getHalfwordCount(SectionDisassembly section) {
+        return (int) ((section.getAddress(section.getCount()) - section.getAddress(0)) >>> 1);
+    }
+
+    private static HalfwordSet findInstructionStarts(SectionDisassembly section) {
+        HalfwordSet result = new HalfwordSet(getHalfwordCount(section));
+        long base = section.getAddress(0);
+        for (int i = 0; i < section.getCount(); i++) {
+            result.add((int) ((section.getAddress(i) - base) >>> 1));
+        }
+        result.rank();
+        return result;
+    }
+
+    private static int getHalfword(SectionDisassembly section, HalfwordSet instructionStarts, long address) {
+        long offset = address - section.getAddress(0);
+        if (offset < 0 || (offset & 1) != 0 || (offset >>> 1) >= instructionStarts.size()) {
+            return -1;
+        }
+        int halfword = (int) (offset >>> 1);
+        return instructionStarts.contains(halfword) ? halfword : -1;
+    }
+
+    private long[] findLeaders(SectionDisassembly section, HalfwordSet instructionStarts, HalfwordSet leaders) {
+        int count = section.getCount();
+        if (count == 0) {
+            leaders.rank();
+            return new long[0];
+        }
+        long base = section.getAddress(0);
+        long end = section.getAddress(count);
+        LongHashSet functions = new LongHashSet();
+        SymbolIndex functionIndex = symbols.getFunctionIndex(section.getSection());
+        for (int position = Math.max(0, functionIndex.floor(base)); position < functionIndex.size(); position++) {
+            long address = functionIndex.getAddress(position);
+            if (address >= end) {
+                break;
+            }
+            if (getHalfword(section, instructionStarts, address) >= 0) {
+                functions.add(address);
+            }
+        }
+        leaders.add(0);
+        for (int i = 0; i < count; i++) {
+            boolean terminator = switch (getKind(section, i)) {
+                case BLOCK_BRANCH, BLOCK_JUMP -> {
+                    int target = hasTarget(section, i)
+                            ? getHalfword(section, instructionStarts, getTarget(section, i)) : -1;
+                    if (target >= 0) {
+                        leaders.add(target);
+                        if (DecodedInstruction.getMnemonic(section.getInstruction(i)) == Mnemonic.JALR) {
+                            functions.add(getTarget(section, i));
+                        }
+                    }
+                    yield true;
+                }
+                case BLOCK_RETURN, BLOCK_INDIRECT -> true;
+                default -> {
+                    if (isCall(section, i) && getHalfword(section, instructionStarts, getTarget(section, i)) >= 0) {
+                        functions.add(getTarget(section, i));
+                    }
+                    yield false;
+                }
+            };
+            if (terminator && i + 1 < count) {
+                leaders.add((int) ((section.getAddress(i + 1) - base) >>> 1));
+            }
+        }
+
+        long[] result = functions.toSortedArray();
+        for (int f = 0; f < result.length; f++) {
+            leaders.add((int) ((result[f] - base) >>> 1));
+            long functionEnd = getFunctionEnd(section, result, f, end);
+            int halfword = getHalfword(section, instructionStarts, functionEnd);
+            if (halfword >= 0) {
+                leaders.add(halfword);
+            }
+        }
+        leaders.rank();
+        return result;
+    }
+
+    private long getFunctionEnd(SectionDisassembly section, long[] starts, int index, long sectionEnd) {
+        long next = index + 1 < starts.length ? starts[index + 1] : sectionEnd;
+        SymbolIndex functionIndex = symbols.getFunctionIndex(section.getSection());
+        int position = functionIndex.indexOf(starts[index]);
+        if (position >= 0 && functionIndex.getSize(position) > 0) {
+            return Math.min(next, starts[index] + functionIndex.getSize(position));
+        }
+        return next;
+    }
+
+    private void addFunctions(SectionDisassembly section, long[] starts, int first) {
+        long end = section.getAddress(section.getCount());
+        SymbolIndex functionIndex = symbols.getFunctionIndex(section.getSection());
+        for (int i = 0; i < starts.length; i++) {
+            int position = functionIndex.indexOf(starts[i]);
+            functionAddresses[first + i] = starts[i];
+            functionEnds[first + i] = getFunctionEnd(section, starts, i, end);
+            functionSymbols[first + i] = position < 0 ? NO_FUNCTION : functionIndex.getSymbol(position);
+        }
+    }
+
+    private void addBlocks(int sectionIndex, SectionDisassembly section, HalfwordSet instructionStarts,
+                           HalfwordSet leaders) {
+        int count = section.getCount();
+        int firstBlock = sectionFirstBlocks[sectionIndex];
+        int block = firstBlock;
+        int halfword = leaders.nextSetBit(0);
+        while (halfword >= 0) {
+            int next = leaders.nextSetBit(halfword + 1);
+            int from = instructionStarts.rank(halfword);
+            int to = next < 0 ? count : instructionStarts.rank(next);
+            byte kind = getKind(section, to - 1);
+            int function = findFunction(sectionIndex, section.getAddress(from));
+            blockAddresses[block] = section.getAddress(from);
+            blockSizes[block] = (int) (section.getAddress(to) - section.getAddress(from));
+            blockFirstInstructions[block] = from;
+            blockInstructionCounts[block] = to - from;
+            blockKinds[block] = kind;
+            for (int i = from; i < to; i++) {
+                if (isCall(section, i)) {
+                    addCall(block, section.getAddress(i), getTarget(section, i));
+                }
+            }
+            if ((kind == BLOCK_BRANCH || kind == BLOCK_JUMP) && hasTarget(section, to - 1)) {
+                long address = getTarget(section, to - 1);
+                int target = getHalfword(section, instructionStarts, address);
+                if (target >= 0 && findFunction(sectionIndex, address) == function) {
+                    addEdge(firstBlock + leaders.rank(target), kind == BLOCK_BRANCH ? EDGE_TAKEN : EDGE_JUMP);
+                } else if (target >= 0) {
+                    addCall(block, section.getAddress(to - 1), address);
+                }
+            }
+            if ((kind == BLOCK_FALLTHROUGH || kind == BLOCK_BRANCH) && next >= 0
+                    && findFunction(sectionIndex, section.getAddress(to)) == function) {
+                addEdge(block + 1, EDGE_FALLTHROUGH);
+            }
+            edgeOffsets[++block] = edgeCount;
+            halfword = next;
+        }
+    }
+
+    private int findFunction(int section, long address) {
+        int first = sectionFirstFunctions[section];
+        int position = Arrays.binarySearch(functionAddresses, first, sectionFirstFunctions[section + 1], address);
+        if (position < 0) {
+            position = -position - 2;
+        }
+        return position >= first && address < functionEnds[position] ? position : NO_FUNCTION;
+    }
+
+    private void assignFunctions(int section) {
+        int function = sectionFirstFunctions[section];
+        int lastFunction = sectionFirstFunctions[section + 1];
+        for (int block = sectionFirstBlocks[section]; block < sectionFirstBlocks[section + 1]; block++) {
+            long address = blockAddresses[block];
+            blockFunctions[block] = NO_FUNCTION;
+            while (function < lastFunction && functionEnds[function] <= address) {
+                function++;
+            }
+            if (function < lastFunction && functionAddresses[function] <= address) {
+                if (functionBlockCounts[function]++ == 0) {
+                    functionFirstBlocks[function] = block;
+                }
+                blockFunctions[block] = function;
+            }
+        }
+    }
+
+    private static byte getKind(SectionDisassembly section, int number) {
+        long instruction = section.getInstruction(number);
+        return switch (DecodedInstruction.getMnemonic(instruction)) {
+            case BEQ, BNE, BLT, BGE, BLTU, BGEU -> BLOCK_BRANCH;
+            case JAL -> DecodedInstruction.getRd(instruction) == 0 ? BLOCK_JUMP : BLOCK_FALLTHROUGH;
+            case JALR -> {
+                if (DecodedInstruction.getRd(instruction) != 0) {
+                    yield BLOCK_FALLTHROUGH;
+                }
+                if (DecodedInstruction.getRs1(instruction) == RA && DecodedInstruction.getImmediate(instruction) == 0) {
+                    yield BLOCK_RETURN;
+                }
+                yield hasTarget(section, number) ? BLOCK_JUMP : BLOCK_INDIRECT;
+            }
+            case MRET, SRET -> BLOCK_RETURN;
+            default -> BLOCK_FALLTHROUGH;
+        };
+    }
+
+    private static boolean isCall(SectionDisassembly section, int number) {
+        long instruction = section.getInstruction(number);
+        return switch (DecodedInstruction.getMnemonic(instruction)) {
+            case JAL, JALR -> DecodedInstruction.getRd(instruction) != 0 && hasTarget(section, number);
+            default -> false;
+        };
+    }
+
+    private static boolean hasTarget(SectionDisassembly section, int number) {
+        if (DecodedInstruction.getMnemonic(section.getInstruction(number)) == Mnemonic.JALR) {
+            return section.hasMaterializedAddress(number) && !section.isRelocated(number - 1);
+        }
+        return !section.isRelocated(number);
+    }
+
+    private static long getTarget(SectionDisassembly section, int number) {
+        if (DecodedInstruction.getMnemonic(section.getInstruction(number)) == Mnemonic.JALR) {
+            return section.getMaterializedAddress(number);
+        }
+        return section.getTarget(number);
+    }
+
+    private void addEdge(int target, byte kind) {
+        if (edgeCount == edgeTargets.length) {
+            edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+            edgeKinds = Arrays.copyOf(edgeKinds, edgeCount * 2);
+        }
+        edgeTargets[edgeCount] = target;
+        edgeKinds[edgeCount++] = kind;
+    }
+
+    private void addCall(int block, long address, long target) {
+        if (callCount == callBlocks.length) {
+            callBlocks = Arrays.copyOf(callBlocks, callCount * 2);
+            callAddresses = Arrays.copyOf(callAddresses, callCount * 2);
+            callTargets = Arrays.copyOf(callTargets, callCount * 2);
+        }
+        callBlocks[callCount] = block;
+        callAddresses[callCount] = address;
+        callTargets[callCount++] = target;
+    }
+
+    public Disassembly getDisassembly() {
+        return disassembly;
+    }
+
+    public int getFunctionCount() {
+        return functionAddresses.length;
+    }
+
+    public long getFunctionAddress(int function) {
+        return functionAddresses[function];
+    }
+
+    public long getFunctionEnd(int function) {
+        return functionEnds[function];
+    }
+
+    public int getFunctionSymbol(int function) {
+        return functionSymbols[function];
+    }
+
+    public String getFunctionName(int function) {
+        return functionSymbols[function] == NO_FUNCTION ? "" : symbols.getSymbolName(functionSymbols[function]);
+    }
+
+    public int getFunctionFirstBlock(int function) {
+        return functionFirstBlocks[function];
+    }
+
+    public int getFunctionBlockCount(int function) {
+        return functionBlockCounts[function];
+    }
+
+    public int indexOfFunction(long address) {
+        for (int section = 0; section + 1 < sectionFirstFunctions.length; section++) {
+            int position = Arrays.binarySearch(functionAddresses, sectionFirstFunctions[section],
+                    sectionFirstFunctions[section + 1], address);
+            if (position >= 0) {
+                return position;
+            }
+        }
+        return NO_FUNCTION;
+    }
+
+    public int getBlockCount() {
+        return blockAddresses.length;
+    }
+
+    public int getSectionFirstBlock(int section) {
+        return sectionFirstBlocks[section];
+    }
+
+    public long getBlockAddress(int block) {
+        return blockAddresses[block];
+    }
+
+    public long getBlockEnd(int block) {
+        return blockAddresses[block] + blockSizes[block];
+    }
+
+    public int getBlockFirstInstruction(int block) {
+        return blockFirstInstructions[block];
+    }
+
+    public int getBlockInstructionCount(int block) {
+        return blockInstructionCounts[block];
+    }
+
+    public int getBlockFunction(int block) {
+        return blockFunctions[block];
+    }
+
+    public byte getBlockKind(int block) {
+        return blockKinds[block];
+    }
+
+    public int indexOfBlock(long address) {
+        for (int section = 0; section + 1 < sectionFirstBlocks.length; section++) {
+            int low = sectionFirstBlocks[section];
+            int high = sectionFirstBlocks[section + 1] - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (blockAddresses[middle] <= address) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            if (high >= sectionFirstBlocks[section] && address < getBlockEnd(high)) {
+                return high;
+            }
+        }
+        return -1;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getFirstEdge(int block) {
+        return edgeOffsets[block];
+    }
+
+    public int getSuccessorCount(int block) {
+        return edgeOffsets[block + 1] - edgeOffsets[block];
+    }
+
+    public int getEdgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    public byte getEdgeKind(int edge) {
+        return edgeKinds[edge];
+    }
+
+    public int getCallCount() {
+        return callCount;
+    }
+
+    public int getCallBlock(int call) {
+        return callBlocks[call];
+    }
+
+    public long getCallAddress(int call) {
+        return callAddresses[call];
+    }
+
+    public long getCallTarget(int call) {
+        return callTargets[call];
+    }
+
+    public void writeDot(AsciiWriter out) {
+        out.put("digraph cfg {\n    node [shape=box, fontname=\"monospace\"];\n");
+        int function = 0;
+        for (int block = 0; block < blockAddresses.length; block++) {
+            if (blockFunctions[block] != NO_FUNCTION && functionFirstBlocks[blockFunctions[block]] == block) {
+                function = blockFunctions[block];
+                out.put("    subgraph cluster_").putDecimal(function).put(" {\n        label=\"");
+                appendFunctionName(out, function);
+                out.put("\";\n");
+            }
+            out.put(blockFunctions[block] == NO_FUNCTION ? "    b" : "        b").putDecimal(block)
+                    .put(" [label=\"").putHex(blockAddresses[block], 1).put('-').putHex(getBlockEnd(block), 1)
+                    .put("\\n").putDecimal(blockInstructionCounts[block]).put(" instructions\"];\n");
+            if (blockFunctions[block] != NO_FUNCTION
+                    && block + 1 == functionFirstBlocks[function] + functionBlockCounts[function]) {
+                out.put("    }\n");
+            }
+        }
+        for (int block = 0; block < blockAddresses.length; block++) {
+            for (int edge = edgeOffsets[block]; edge < edgeOffsets[block + 1]; edge++) {
+                out.put("    b").putDecimal(block).put(" -> b").putDecimal(edgeTargets[edge]);
+                out.put(switch (edgeKinds[edge]) {
+                    case EDGE_TAKEN -> " [color=darkgreen];\n";
+                    case EDGE_FALLTHROUGH -> " [style=dashed];\n";
+                    default -> ";\n";
+                });
+            }
+        }
+        for (int call = 0; call < callCount; call++) {
+            int callee = indexOfFunction(callTargets[call]);
+            if (callee != NO_FUNCTION && functionBlockCounts[callee] > 0) {
+                out.put("    b").putDecimal(callBlocks[call]).put(" -> b").putDecimal(functionFirstBlocks[callee])
+                        .put(" [style=dotted, constraint=false];\n");
+            }
+        }
+        out.put("}\n");
+    }
+
+    private void appendFunctionName(AsciiWriter out, int function) {
+        String name = getFunctionName(function);
+        if (name.isEmpty()) {
+            out.put("sub_").putHex(functionAddresses[function], 1);
+            return;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.put('\\');
+            }
+            out.put(c);
+        }
+    }
+
+    public void writeBinary(WritableByteChannel channel) throws IOException {
+        AsciiWriter strings = new AsciiWriter();
+        int[] names = new int[functionAddresses.length];
+        for (int function = 0; function < names.length; function++) {
+            if (functionSymbols[function] == NO_FUNCTION) {
+                names[function] = NO_STRING;
+            } else {
+                names[function] = strings.size();
+                strings.put(symbols.getSymbolName(functionSymbols[function])).put('\0');
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(AsciiWriter.DEFAULT_CAPACITY).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(disassembly.getParser().getXlen())
+                .putInt(functionAddresses.length).putInt(blockAddresses.length).putInt(edgeCount)
+                .putInt(callCount).putInt(strings.size());
+        for (int function = 0; function < functionAddresses.length; function++) {
+            ensure(channel, buffer, FUNCTION_RECORD_SIZE);
+            buffer.putLong(functionAddresses[function]).putLong(functionEnds[function])
+                    .putInt(functionFirstBlocks[function]).putInt(functionBlockCounts[function])
+                    .putInt(functionSymbols[function]).putInt(names[function]);
+        }
+        int section = 0;
+        for (int block = 0; block < blockAddresses.length; block++) {
+            while (sectionFirstBlocks[section + 1] <= block) {
+                section++;
+            }
+            ensure(channel, buffer, BLOCK_RECORD_SIZE);
+            buffer.putLong(blockAddresses[block]).putInt(blockSizes[block])
+                    .putInt(blockInstructionCounts[block]).putInt(blockFunctions[block])
+                    .putInt(edgeOffsets[block]).putShort((short) section).putShort(blockKinds[block])
+                    .putInt(blockFirstInstructions[block]);
+        }
+        for (int edge = 0; edge < edgeCount; edge++) {
+            ensure(channel, buffer, EDGE_RECORD_SIZE);
+            buffer.putInt(edgeTargets[edge]).putInt(edgeKinds[edge]);
+        }
+        for (int call = 0; call < callCount; call++) {
+            ensure(channel, buffer, CALL_RECORD_SIZE);
+            buffer.putLong(callAddresses[call]).putLong(callTargets[call])
+                    .putInt(callBlocks[call]).putInt(indexOfFunction(callTargets[call]));
+        }
+        flush(channel, buffer);
+        ByteBuffer table = ByteBuffer.wrap(strings.toByteArray());
+        while (table.hasRemaining()) {
+            channel.write(table);
+        }
+    }
+
+    private static void ensure(WritableByteChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static final class HalfwordSet {
+        private final int size;
+        private final long[] words;
+        private int[] ranks;
+
+        private HalfwordSet(int size) {
+            this.size = size;
+            this.words = new long[(size + 63) >>> 6];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void add(int halfword) {
+            words[halfword >>> 6] |= 1L << halfword;
+        }
+
+        private boolean contains(int halfword) {
+            return (words[halfword >>> 6] & (1L << halfword)) != 0;
+        }
+
+        private void rank() {
+            ranks = new int[words.length + 1];
+            for (int i = 0; i < words.length; i++) {
+                ranks[i + 1] = ranks[i] + Long.bitCount(words[i]);
+            }
+        }
+
+        private int rank(int halfword) {
+            int word = halfword >>> 6;
+            return word == words.length ? ranks[word] : ranks[word] + Long.bitCount(words[word] & ((1L << halfword) - 1));
+        }
+
+        private int count() {
+            return ranks[words.length];
+        }
+
+        private int nextSetBit(int from) {
+            int word = from >>> 6;
+            if (word >= words.length) {
+                return -1;
+            }
+            long bits = words[word] & (-1L << from);
+            while (bits == 0) {
+                if (++word == words.length) {
+                    return -1;
+                }
+                bits = words[word];
+            }
+            return (word << 6) + Long.numberOfTrailingZeros(bits);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package disasm;
+
+public final class DecodedInstruction {
+    private static final int RD_SHIFT = 9;
+    private static final int RS1_SHIFT = 14;
+    private static final int RS2_SHIFT = 19;
+    private static final int RS3_SHIFT = 24;
+    private static final int RM_SHIFT = 29;
+    private static final int IMMEDIATE_SHIFT = 32;
+
+    private DecodedInstruction() {
+    }
+
+    public static long pack(int id, int rd, int rs1, int rs2, int immediate) {
+        return id
+                | ((long) rd << RD_SHIFT)
+                | ((long) rs1 << RS1_SHIFT)
+                | ((long) rs2 << RS2_SHIFT)
+                | ((long) immediate << IMMEDIATE_SHIFT);
+    }
+
+    public static long pack(int id, int rd, int rs1, int rs2, int rs3, int rm, int immediate) {
+        return pack(id, rd, rs1, rs2, immediate)
+                | ((long) rs3 << RS3_SHIFT)
+                | ((long) rm << RM_SHIFT);
+    }
+
+    public static int getId(long instruction) {
+        return (int) instruction & 0x1ff;
+    }
+
+    public static Mnemonic getMnemonic(long instruction) {
+        return Mnemonic.of(getId(instruction));
+    }
+
+    public static int getRd(long instruction) {
+        return (int) (instruction >>> RD_SHIFT) & 0x1f;
+    }
+
+    public static int getRs1(long instruction) {
+        return (int) (instruction >>> RS1_SHIFT) & 0x1f;
+    }
+
+    public static int getRs2(long instruction) {
+        return (int) (instruction >>> RS2_SHIFT) & 0x1f;
+    }
+
+    public static int getRs3(long instruction) {
+        return (int) (instruction >>> RS3_SHIFT) & 0x1f;
+    }
+
+    public static int getRm(long instruction) {
+        return (int) (instruction >>> RM_SHIFT) & 0x7;
+    }
+
+    public static int getImmediate(long instruction) {
+        return (int) (instruction >> IMMEDIATE_SHIFT);
+    }
+}
@@ -0,0 +1,45 @@
+package disasm;
+
+public class DisassembledInstruction {
+    private final long address;
+    private final int command;
+    private final int length;
+    private final long instruction;
+    private final long target;
+
+    public DisassembledInstruction(long address, int command, int length, long instruction, long target) {
+        this.address = address;
+        this.command = command;
+        this.length = length;
+        this.instruction = instruction;
+        this.target = target;
+    }
+
+    public long getAddress() {
+        return address;
+    }
+
+    public int getCommand() {
+        return command;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public long getInstruction() {
+        return instruction;
+    }
+
+    public Mnemonic getMnemonic() {
+        return DecodedInstruction.getMnemonic(instruction);
+    }
+
+    public long getTarget() {
+        return target;
+    }
+
+    public void append(AsciiWriter out, LabelTable labels) {
+        InstructionPrinter.append(out, address, command, length, instruction, target, labels);
+    }
+}
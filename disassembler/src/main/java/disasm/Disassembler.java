@@ -0,0 +1,301 @@
+package disasm;
+
+import java.io.FileOutputStream;
+import java.io.FileDescriptor;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import javax.management.JMException;
+
+public class Disassembler {
+    public static void main(String[] args) {
+        ForkJoinPool pool = null;
+        String batchOutput = null;
+        String serve = null;
+        String connect = null;
+        String incremental = null;
+        String range = null;
+        String graph = null;
+        boolean binary = false;
+        boolean xref = false;
+        boolean diff = false;
+        List<String> queries = new ArrayList<>();
+        String metrics = null;
+        boolean metricsJmx = false;
+        boolean statistics = false;
+        long cacheSize = 256L << 20;
+        long requestLimit = -1;
+        int jobs = Runtime.getRuntime().availableProcessors();
+        List<String> files = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--batch=")) {
+                batchOutput = arg.substring("--batch=".length());
+            } else if (arg.startsWith("--serve=")) {
+                serve = arg.substring("--serve=".length());
+            } else if (arg.startsWith("--connect=")) {
+                connect = arg.substring("--connect=".length());
+            } else if (arg.startsWith("--incremental=")) {
+                incremental = arg.substring("--incremental=".length());
+            } else if (arg.equals("--format=binary")) {
+                binary = true;
+            } else if (arg.equals("--format=text")) {
+                binary = false;
+            } else if (arg.equals("--xref")) {
+                xref = true;
+            } else if (arg.equals("--diff")) {
+                diff = true;
+            } else if (arg.startsWith("--search=")) {
+                queries.add(arg.substring("--search=".length()));
+            } else if (arg.startsWith("--metrics=")) {
+                metrics = arg.substring("--metrics=".length());
+            } else if (arg.equals("--metrics-jmx")) {
+                metricsJmx = true;
+            } else if (arg.equals("--cfg=dot") || arg.equals("--cfg=binary")) {
+                graph = arg.substring("--cfg=".length());
+            } else if (arg.startsWith("--range=")) {
+                range = arg.substring("--range=".length());
+            } else if (arg.equals("--no-aliases")) {
+                System.setProperty("disasm.noAliases", "true");
+            } else if (arg.equals("--stats")) {
+                statistics = true;
+            } else if (arg.startsWith("--cache-size=")) {
+                cacheSize = Long.parseLong(arg.substring("--cache-size=".length())) << 20;
+            } else if (arg.startsWith("--max-request=")) {
+                requestLimit = Long.parseLong(arg.substring("--max-request=".length())) << 20;
+            } else if (arg.startsWith("--jobs=")) {
+                jobs = Integer.parseInt(arg.substring("--jobs=".length()));
+            } else if (arg.equals("--parallel")) {
+                pool = ForkJoinPool.commonPool();
+            } else if (arg.startsWith("--parallel=")) {
+                pool = new ForkJoinPool(Integer.parseInt(arg.substring("--parallel=".length())));
+            } else {
+                files.add(arg);
+            }
+        }
+        if (metrics != null || metricsJmx) {
+            System.setProperty("disasm.metrics", "true");
+        }
+        if (metricsJmx) {
+            try {
+                Metrics.register();
+            } catch (JMException e) {
+                System.out.println("Metrics error: " + e.getMessage());
+            }
+        }
+        if (metrics != null) {
+            String metricsOutput = metrics;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> writeMetrics(metricsOutput)));
+        }
+        if (serve != null) {
+            try {
+                new DisassemblyServer(cacheSize, jobs, requestLimit < 0 ? cacheSize : requestLimit)
+                        .serve(DisassemblyServer.parseAddress(serve));
+            } catch (IOException e) {
+                System.out.println("Server error, i give up! " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        if (connect != null && statistics) {
+            try {
+                System.out.print(DisassemblyServer.requestStatistics(DisassemblyServer.parseAddress(connect)));
+            } catch (IOException e) {
+                System.out.println("Server error, i give up! " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        if (batchOutput != null) {
+            try {
+                int failed = new BatchDisassembler(Path.of(batchOutput), jobs).run(files);
+                if (failed > 0) {
+                    System.exit(1);
+                }
+            } catch (IOException e) {
+                System.out.println("Batch error, i give up! " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        if (diff && files.size() == 3) {
+            try (AsciiWriter writer = new AsciiWriter(openOutput(files.get(2)))) {
+                DisassemblyDiff disassemblyDiff = new DisassemblyDiff(new ELFParser(ELFFile.map(Path.of(files.get(0)))),
+                        new ELFParser(ELFFile.map(Path.of(files.get(1)))), pool);
+                disassemblyDiff.write(writer, files.get(0), files.get(1));
+            } catch (IOException | UncheckedIOException e) {
+                System.out.println("Diff error, i give up! " + e.getMessage());
+            }
+            return;
+        }
+        if (diff || files.size() != 2) {
+            System.out.println("Usage: Disassembler [--parallel[=threads]] [--format=text|binary] [--xref] <input> <output|->");
+            System.out.println("       Disassembler --incremental=<state file> <input> <output|->");
+            System.out.println("       Disassembler --range=<start>:<end> <input> <output|->");
+            System.out.println("       Disassembler [--parallel[=threads]] --diff <old input> <new input> <output|->");
+            System.out.println("       Disassembler --search=<query|-> [--search=<query>]... <input> <output|->");
+            System.out.println("       Disassembler [--parallel[=threads]] --cfg=dot|binary <input> <output|->");
+            System.out.println("       any mode: [--no-aliases] [--metrics=<json file|->] [--metrics-jmx]");
+            System.out.println("       Disassembler --batch=<output dir> [--jobs=N] <input|dir|@list>...");
+            System.out.println("       Disassembler --serve=<port|socket path> [--cache-size=MB] [--max-request=MB] [--jobs=N]");
+            System.out.println("       Disassembler --connect=<port|socket path> <input> <output|->");
+            System.out.println("       Disassembler --connect=<port|socket path> --stats");
+            return;
+        }
+        long[] bounds = null;
+        if (range != null) {
+            bounds = parseRange(range);
+            if (bounds == null) {
+                System.out.println("Range error, i give up! Expected <start>:<end> in hex, got " + range);
+                return;
+            }
+        }
+
+        if (connect != null) {
+            byte[] result;
+            try {
+                result = DisassemblyServer.request(DisassemblyServer.parseAddress(connect), Path.of(files.get(0)));
+            } catch (IOException e) {
+                System.out.println("Input error, i give up! " + e.getMessage());
+                return;
+            }
+            try (FileChannel output = openOutput(files.get(1))) {
+                output.write(ByteBuffer.wrap(result));
+            } catch (IOException e) {
+                System.out.println("Output error, i give up! " + e.getMessage());
+            }
+            return;
+        }
+
+        try {
+            ELFParser parser = new ELFParser(ELFFile.map(Path.of(files.get(0))));
+
+            if (!queries.isEmpty()) {
+                InstructionSearch search = new InstructionSearch(new Disassembly(parser, pool));
+                try (AsciiWriter writer = new AsciiWriter(openOutput(files.get(1)))) {
+                    for (String query : queries) {
+                        if (query.equals("-")) {
+                            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+                            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                                writeSearch(search, line, writer);
+                                writer.flush();
+                            }
+                        } else {
+                            writeSearch(search, query, writer);
+                        }
+                    }
+                } catch (IOException | UncheckedIOException e) {
+                    System.out.println("Output error, i give up! " + e.getMessage());
+                }
+                return;
+            }
+
+            if (graph != null) {
+                ControlFlowGraph cfg = new ControlFlowGraph(new Disassembly(parser, pool));
+                try (FileChannel output = openOutput(files.get(1))) {
+                    if (graph.equals("binary")) {
+                        cfg.writeBinary(output);
+                    } else {
+                        AsciiWriter writer = new AsciiWriter(output);
+                        cfg.writeDot(writer);
+                        writer.flush();
+                    }
+                } catch (IOException | UncheckedIOException e) {
+                    System.out.println("Output error, i give up! " + e.getMessage());
+                }
+                return;
+            }
+
+            Path xrefPath = Path.of((files.get(1).equals("-") ? files.get(0) : files.get(1)) + ".xref");
+            if (binary) {
+                try (BinaryDisassemblyWriter writer = new BinaryDisassemblyWriter(openOutput(files.get(1)))) {
+                    Disassembly disassembly = new Disassembly(parser, pool);
+                    writer.write(disassembly);
+                    if (xref) {
+                        new XrefIndex(disassembly).write(xrefPath);
+                    }
+                } catch (IOException e) {
+                    System.out.println("Output error, i give up! " + e.getMessage());
+                }
+                return;
+            }
+
+            try (AsciiWriter writer = new AsciiWriter(openOutput(files.get(1)))) {
+                if (bounds != null) {
+                    DisassemblyView view = new DisassemblyView(parser);
+                    view.append(writer, view.range(bounds[0], bounds[1]));
+                } else if (incremental != null) {
+                    IncrementalDisassembly disassembly = new IncrementalDisassembly(parser, Path.of(incremental));
+                    disassembly.write(writer);
+                    System.err.println("Reused " + disassembly.getReusedCount() + " of "
+                            + disassembly.getFunctionCount() + " functions");
+                } else {
+                    Disassembly disassembly = writeInFile(parser, writer, pool);
+                    if (xref) {
+                        new XrefIndex(disassembly).write(xrefPath);
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                System.out.println("Output error, i give up! " + e.getMessage());
+            }
+        } catch (IOException e) {
+            System.out.println("Input error, i give up! " + e.getMessage());
+        }
+    }
+
+    private static long[] parseRange(String range) {
+        int separator = range.indexOf(':');
+        if (separator < 0) {
+            return null;
+        }
+        try {
+            return new long[] {Long.parseUnsignedLong(range.substring(0, separator), 16),
+                    Long.parseUnsignedLong(range.substring(separator + 1), 16)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static FileChannel openOutput(String path) throws IOException {
+        if (path.equals("-")) {
+            return new FileOutputStream(FileDescriptor.out).getChannel();
+        }
+        return FileChannel.open(Path.of(path), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static void writeSearch(InstructionSearch search, String query, AsciiWriter writer) {
+        if (query.isBlank()) {
+            return;
+        }
+        try {
+            int[] matches = search.find(query);
+            search.write(writer, matches);
+            writer.put("# ").putDecimal(matches.length).put(" matches for ").put(query.trim()).put('\n');
+        } catch (UnsupportedOperationException | NumberFormatException e) {
+            writer.put("# Query error: ").put(e.getMessage()).put('\n');
+        }
+    }
+
+    private static void writeMetrics(String path) {
+        try (AsciiWriter writer = new AsciiWriter(path.equals("-")
+                ? new FileOutputStream(FileDescriptor.err).getChannel() : openOutput(path))) {
+            Metrics.getInstance().write(writer);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Metrics error: " + e.getMessage());
+        }
+    }
+
+    private static Disassembly writeInFile(ELFParser parser, AsciiWriter writer, ForkJoinPool pool) {
+        Disassembly disassembly = new Disassembly(parser, pool);
+        disassembly.write(writer, pool);
+        return disassembly;
+    }
+}
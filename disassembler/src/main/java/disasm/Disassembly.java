@@ -0,0 +1,84 @@
+package disasm;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public class Disassembly {
+    private final ELFParser parser;
+    private final SectionDisassembly[] sections;
+    private final LabelTable labels;
+
+    public Disassembly(ELFParser parser) {
+        this(parser, null);
+    }
+
+    public Disassembly(ELFParser parser, ForkJoinPool pool) {
+        this.parser = parser;
+        long start = Metrics.start();
+        long allocation = Metrics.startAllocation();
+        int[] executable = parser.getExecutableSections();
+        sections = new SectionDisassembly[executable.length];
+        if (pool == null || executable.length == 1) {
+            for (int i = 0; i < executable.length; i++) {
+                sections[i] = new SectionDisassembly(parser, executable[i], pool);
+            }
+        } else {
+            ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[executable.length];
+            for (int i = 0; i < executable.length; i++) {
+                int index = i;
+                tasks[i] = pool.submit(() -> {
+                    sections[index] = new SectionDisassembly(parser, executable[index], pool);
+                });
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        }
+
+        Metrics.end(Metrics.Phase.DECODE, start, allocation);
+        for (SectionDisassembly section : sections) {
+            Metrics.recordSection(section);
+        }
+
+        start = Metrics.start();
+        allocation = Metrics.startAllocation();
+        LongHashSet[] targets = new LongHashSet[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            targets[i] = sections[i].getTargets();
+        }
+        labels = new LabelTable(parser.getSymbolTable(), executable, targets);
+        Metrics.end(Metrics.Phase.LABELS, start, allocation);
+    }
+
+    public ELFParser getParser() {
+        return parser;
+    }
+
+    public int getSectionCount() {
+        return sections.length;
+    }
+
+    public SectionDisassembly getSection(int index) {
+        return sections[index];
+    }
+
+    public LabelTable getLabels() {
+        return labels;
+    }
+
+    public void write(AsciiWriter out, ForkJoinPool pool) {
+        long start = Metrics.start();
+        long allocation = Metrics.startAllocation();
+        for (int i = 0; i < sections.length; i++) {
+            if (i > 0) {
+                out.put('\n');
+            }
+            out.put("Disassembly of section ").put(sections[i].getName()).put(":\n");
+            sections[i].write(out, labels, pool);
+        }
+
+        out.put("\nSYMBOL TABLE:\n");
+        parser.getSymbolTable().write(out);
+        Metrics.end(Metrics.Phase.RENDER, start, allocation);
+    }
+}
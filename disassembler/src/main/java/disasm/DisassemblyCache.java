@@ -0,0 +1,56 @@
+package disasm;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class DisassemblyCache {
+    private final long capacity;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public DisassemblyCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized byte[] get(String key) {
+        byte[] result = entries.get(key);
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    public synchronized void put(String key, byte[] value) {
+        if (value.length > capacity) {
+            return;
+        }
+        byte[] previous = entries.put(key, value);
+        size += value.length - (previous == null ? 0 : previous.length);
+        Iterator<Map.Entry<String, byte[]>> iterator = entries.entrySet().iterator();
+        while (size > capacity && iterator.hasNext()) {
+            Map.Entry<String, byte[]> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            size -= eldest.getValue().length;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized String getStatistics() {
+        return "entries=" + entries.size()
+                + " bytes=" + size
+                + " capacity=" + capacity
+                + " hits=" + hits
+                + " misses=" + misses
+                + " evictions=" + evictions
+                + "\n";
+    }
+}
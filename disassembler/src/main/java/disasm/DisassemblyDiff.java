@@ -0,0 +1,390 @@
+package disasm;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class DisassemblyDiff {
+    private final Side before;
+    private final Side after;
+    private long[] beforeHashes = new long[16];
+    private long[] afterHashes = new long[16];
+    private int[] hunks = new int[16];
+    private int hunkCount;
+    private int unchanged;
+    private int changed;
+    private int added;
+    private int removed;
+
+    public DisassemblyDiff(ELFParser before, ELFParser after, ForkJoinPool pool) {
+        this.before = new Side(new Disassembly(before, pool));
+        this.after = new Side(new Disassembly(after, pool));
+    }
+
+    public int getUnchangedCount() {
+        return unchanged;
+    }
+
+    public int getChangedCount() {
+        return changed;
+    }
+
+    public int getAddedCount() {
+        return added;
+    }
+
+    public int getRemovedCount() {
+        return removed;
+    }
+
+    public void write(AsciiWriter out, String beforeName, String afterName) {
+        unchanged = 0;
+        changed = 0;
+        added = 0;
+        removed = 0;
+        out.put("--- ").put(beforeName).put("\n+++ ").put(afterName).put('\n');
+        boolean[] matched = new boolean[before.size()];
+        for (int function = 0; function < after.size(); function++) {
+            Integer match = before.indexOf(after.keys[function]);
+            if (match == null) {
+                added++;
+                out.put("\nfunction ").put(after.names[function]).put(" added (")
+                        .putDecimal(after.getCount(function)).put(" instructions)\n");
+                continue;
+            }
+            matched[match] = true;
+            int beforeCount = before.hash(match, beforeHashes = ensure(beforeHashes, before.getCount(match)));
+            int afterCount = after.hash(function, afterHashes = ensure(afterHashes, after.getCount(function)));
+            if (Arrays.equals(beforeHashes, 0, beforeCount, afterHashes, 0, afterCount)) {
+                unchanged++;
+                continue;
+            }
+            changed++;
+            hunkCount = 0;
+            align(0, beforeCount, 0, afterCount);
+            out.put("\nfunction ").put(after.names[function]).put(" changed\n");
+            for (int i = 0; i < hunkCount; i += 4) {
+                appendHunk(out, match, function, hunks[i], hunks[i + 1], hunks[i + 2], hunks[i + 3]);
+            }
+        }
+        for (int function = 0; function < before.size(); function++) {
+            if (!matched[function]) {
+                removed++;
+                out.put("\nfunction ").put(before.names[function]).put(" removed (")
+                        .putDecimal(before.getCount(function)).put(" instructions)\n");
+            }
+        }
+        out.put('\n').putDecimal(unchanged).put(" functions unchanged, ").putDecimal(changed).put(" changed, ")
+                .putDecimal(added).put(" added, ").putDecimal(removed).put(" removed\n");
+    }
+
+    private void appendHunk(AsciiWriter out, int beforeFunction, int afterFunction,
+                            int beforeFrom, int beforeTo, int afterFrom, int afterTo) {
+        out.put("@@ -");
+        before.appendPosition(out, beforeFunction, beforeFrom, beforeTo - beforeFrom);
+        out.put(" +");
+        after.appendPosition(out, afterFunction, afterFrom, afterTo - afterFrom);
+        out.put(" @@\n");
+        for (int i = beforeFrom; i < beforeTo; i++) {
+            out.put('-');
+            before.appendInstruction(out, beforeFunction, i);
+        }
+        for (int i = afterFrom; i < afterTo; i++) {
+            out.put('+');
+            after.appendInstruction(out, afterFunction, i);
+        }
+    }
+
+    private void align(int beforeFrom, int beforeTo, int afterFrom, int afterTo) {
+        while (beforeFrom < beforeTo && afterFrom < afterTo && beforeHashes[beforeFrom] == afterHashes[afterFrom]) {
+            beforeFrom++;
+            afterFrom++;
+        }
+        while (beforeFrom < beforeTo && afterFrom < afterTo
+                && beforeHashes[beforeTo - 1] == afterHashes[afterTo - 1]) {
+            beforeTo--;
+            afterTo--;
+        }
+        if (beforeFrom == beforeTo || afterFrom == afterTo) {
+            addHunk(beforeFrom, beforeTo, afterFrom, afterTo);
+            return;
+        }
+
+        int[] anchors = findAnchors(beforeFrom, beforeTo, afterFrom, afterTo);
+        int previousBefore = beforeFrom;
+        int previousAfter = afterFrom;
+        for (int i = 0; i <= anchors.length; i += 2) {
+            int anchorBefore = i < anchors.length ? anchors[i] : beforeTo;
+            int anchorAfter = i < anchors.length ? anchors[i + 1] : afterTo;
+            int gapBefore = previousBefore;
+            int gapAfter = previousAfter;
+            int gapBeforeEnd = anchorBefore;
+            int gapAfterEnd = anchorAfter;
+            while (gapBefore < gapBeforeEnd && gapAfter < gapAfterEnd
+                    && beforeHashes[gapBefore] == afterHashes[gapAfter]) {
+                gapBefore++;
+                gapAfter++;
+            }
+            while (gapBefore < gapBeforeEnd && gapAfter < gapAfterEnd
+                    && beforeHashes[gapBeforeEnd - 1] == afterHashes[gapAfterEnd - 1]) {
+                gapBeforeEnd--;
+                gapAfterEnd--;
+            }
+            addHunk(gapBefore, gapBeforeEnd, gapAfter, gapAfterEnd);
+            previousBefore = anchorBefore + 1;
+            previousAfter = anchorAfter + 1;
+        }
+    }
+
+    private int[] findAnchors(int beforeFrom, int beforeTo, int afterFrom, int afterTo) {
+        int capacity = Integer.highestOneBit(Math.max(16, (beforeTo - beforeFrom + afterTo - afterFrom) * 2)) << 1;
+        long[] keys = new long[capacity];
+        int[] beforePositions = new int[capacity];
+        int[] afterPositions = new int[capacity];
+        boolean[] used = new boolean[capacity];
+        for (int i = beforeFrom; i < beforeTo; i++) {
+            int slot = find(keys, used, beforeHashes[i]);
+            beforePositions[slot] = used[slot] ? -2 : i;
+            used[slot] = true;
+        }
+        for (int i = afterFrom; i < afterTo; i++) {
+            int slot = find(keys, used, afterHashes[i]);
+            if (used[slot] && beforePositions[slot] >= 0) {
+                afterPositions[slot] = afterPositions[slot] == 0 ? i + 1 : -1;
+            }
+        }
+
+        int[] candidates = new int[beforeTo - beforeFrom];
+        int count = 0;
+        for (int i = beforeFrom; i < beforeTo; i++) {
+            int slot = find(keys, used, beforeHashes[i]);
+            if (beforePositions[slot] == i && afterPositions[slot] > 0) {
+                candidates[count++] = afterPositions[slot] - 1;
+            }
+        }
+        int[] tails = new int[count];
+        int[] previous = new int[count];
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (candidates[tails[middle]] < candidates[i]) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        int[] beforeIndices = new int[count];
+        count = 0;
+        for (int i = beforeFrom; i < beforeTo; i++) {
+            int slot = find(keys, used, beforeHashes[i]);
+            if (beforePositions[slot] == i && afterPositions[slot] > 0) {
+                beforeIndices[count++] = i;
+            }
+        }
+        int[] result = new int[length * 2];
+        for (int i = length - 1, candidate = length == 0 ? -1 : tails[length - 1]; i >= 0; i--) {
+            result[i * 2] = beforeIndices[candidate];
+            result[i * 2 + 1] = candidates[candidate];
+            candidate = previous[candidate];
+        }
+        return result;
+    }
+
+    private static int find(long[] keys, boolean[] used, long key) {
+        int mask = keys.length - 1;
+        long h = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        return slot;
+    }
+
+    private void addHunk(int beforeFrom, int beforeTo, int afterFrom, int afterTo) {
+        if (beforeFrom == beforeTo && afterFrom == afterTo) {
+            return;
+        }
+        if (hunkCount + 4 > hunks.length) {
+            hunks = Arrays.copyOf(hunks, hunks.length * 2);
+        }
+        hunks[hunkCount++] = beforeFrom;
+        hunks[hunkCount++] = beforeTo;
+        hunks[hunkCount++] = afterFrom;
+        hunks[hunkCount++] = afterTo;
+    }
+
+    private static long[] ensure(long[] array, int size) {
+        return array.length >= size ? array : new long[Math.max(size, array.length * 2)];
+    }
+
+    private static long mix(long hash, long value) {
+        long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class Side {
+        private final Disassembly disassembly;
+        private final SymbolTable symbols;
+        private final RelocationTable relocations;
+        private final long[] symbolHashes;
+        private final Map<String, Integer> functions = new HashMap<>();
+        private String[] names = new String[16];
+        private String[] keys = new String[16];
+        private long[] addresses = new long[16];
+        private int[] sections = new int[16];
+        private int[] froms = new int[16];
+        private int[] tos = new int[16];
+        private int size;
+
+        private Side(Disassembly disassembly) {
+            this.disassembly = disassembly;
+            this.symbols = disassembly.getParser().getSymbolTable();
+            this.relocations = disassembly.getParser().getRelocationTable();
+            this.symbolHashes = new long[symbols.size()];
+            SectionTable sectionTable = disassembly.getParser().getSectionTable();
+            for (int i = 0; i < symbolHashes.length; i++) {
+                boolean sectionSymbol = symbols.getType(i) == SymbolTable.STT_SECTION
+                        && symbols.getShndx(i) < sectionTable.size();
+                String name = sectionSymbol ? sectionTable.getName(symbols.getShndx(i)) : symbols.getSymbolName(i);
+                long hash = 0;
+                for (int j = 0; j < name.length(); j++) {
+                    hash = mix(hash, name.charAt(j));
+                }
+                symbolHashes[i] = hash;
+            }
+
+            for (int s = 0; s < disassembly.getSectionCount(); s++) {
+                SectionDisassembly section = disassembly.getSection(s);
+                SymbolIndex functionIndex = symbols.getFunctionIndex(section.getSection());
+                long start = section.getAddress(0);
+                long end = section.getAddress(section.getCount());
+                for (int position = Math.max(0, functionIndex.floor(start));
+                     position < functionIndex.size() && functionIndex.getAddress(position) < end; position++) {
+                    long address = functionIndex.getAddress(position);
+                    int from = section.indexOf(address);
+                    if (address < start || section.getAddress(from) != address) {
+                        continue;
+                    }
+                    long next = position + 1 < functionIndex.size()
+                            ? Math.min(end, functionIndex.getAddress(position + 1)) : end;
+                    long functionEnd = functionIndex.getSize(position) > 0
+                            ? Math.min(next, address + functionIndex.getSize(position)) : next;
+                    add(symbols.getSymbolName(functionIndex.getSymbol(position)), address, s, from,
+                            section.indexOf(functionEnd));
+                }
+            }
+        }
+
+        private void add(String name, long address, int section, int from, int to) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+                addresses = Arrays.copyOf(addresses, size * 2);
+                sections = Arrays.copyOf(sections, size * 2);
+                froms = Arrays.copyOf(froms, size * 2);
+                tos = Arrays.copyOf(tos, size * 2);
+            }
+            String key = name;
+            for (int duplicate = 1; functions.containsKey(key); duplicate++) {
+                key = name + '#' + duplicate;
+            }
+            functions.put(key, size);
+            names[size] = name;
+            keys[size] = key;
+            addresses[size] = address;
+            sections[size] = section;
+            froms[size] = from;
+            tos[size++] = to;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private Integer indexOf(String key) {
+            return functions.get(key);
+        }
+
+        private int getCount(int function) {
+            return tos[function] - froms[function];
+        }
+
+        private int hash(int function, long[] result) {
+            SectionDisassembly section = disassembly.getSection(sections[function]);
+            int count = 0;
+            for (int i = froms[function]; i < tos[function]; i++) {
+                long instruction = section.getInstruction(i);
+                long hash = mix(instruction & 0xffffffffL, section.getLength(i));
+                if (section.isRelocated(i)) {
+                    result[count++] = mix(hash, getRelocation(section, i));
+                    continue;
+                }
+                switch (DecodedInstruction.getMnemonic(instruction).getFormat()) {
+                    case BRANCH, JAL -> hash = mix(hash, getReference(section, section.getTarget(i)));
+                    default -> {
+                        if (section.hasMaterializedAddress(i)) {
+                            hash = mix(hash, section.isRelocated(i - 1)
+                                    ? 0 : getReference(section, section.getMaterializedAddress(i)));
+                        } else if (i + 1 < section.getCount() && section.hasMaterializedAddress(i + 1)) {
+                            hash = mix(hash, 0);
+                        } else if (DecodedInstruction.getMnemonic(instruction) == Mnemonic.AUIPC) {
+                            hash = mix(hash, getReference(section, section.getAddress(i)
+                                    + DecodedInstruction.getImmediate(instruction)));
+                        } else {
+                            hash = mix(hash, DecodedInstruction.getImmediate(instruction));
+                        }
+                    }
+                }
+                result[count++] = hash;
+            }
+            return count;
+        }
+
+        private long getRelocation(SectionDisassembly section, int number) {
+            long offset = section.getOffset(number);
+            long end = offset + section.getLength(number);
+            long hash = 0;
+            for (int relocation = relocations.indexOf(section.getSection(), offset);
+                 relocation < relocations.getLast(section.getSection()) && relocations.getOffset(relocation) < end;
+                 relocation++) {
+                int symbol = relocations.getSymbol(relocation);
+                hash = mix(mix(hash, relocations.getType(relocation)),
+                        symbol < symbolHashes.length ? symbolHashes[symbol] : 0);
+                hash = mix(hash, relocations.getAddend(relocation));
+            }
+            return hash;
+        }
+
+        private long getReference(SectionDisassembly section, long address) {
+            SymbolIndex addressIndex = symbols.getAddressIndex(section.getSection());
+            int position = addressIndex.indexContaining(address);
+            if (position < 0) {
+                return mix(0, address);
+            }
+            return mix(symbolHashes[addressIndex.getSymbol(position)], address - addressIndex.getAddress(position));
+        }
+
+        private void appendPosition(AsciiWriter out, int function, int from, int count) {
+            SectionDisassembly section = disassembly.getSection(sections[function]);
+            long offset = section.getAddress(froms[function] + from) - addresses[function];
+            out.put(names[function]).put("+0x").putHex(offset, 1).put(',').putDecimal(count);
+        }
+
+        private void appendInstruction(AsciiWriter out, int function, int number) {
+            disassembly.getSection(sections[function]).appendInstruction(out, froms[function] + number,
+                    disassembly.getLabels());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package disasm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class DisassemblyServer {
+    public static final int STATISTICS_REQUEST = -1;
+    public static final int STATUS_OK = 0;
+    public static final int STATUS_ERROR = 1;
+    public static final int MAX_REQUEST_SIZE = Integer.MAX_VALUE - 8;
+    private final DisassemblyCache cache;
+    private final int jobs;
+    private final int requestLimit;
+
+    public DisassemblyServer(long cacheCapacity, int jobs) {
+        this(cacheCapacity, jobs, cacheCapacity);
+    }
+
+    public DisassemblyServer(long cacheCapacity, int jobs, long requestLimit) {
+        if (requestLimit <= 0) {
+            throw new UnsupportedOperationException("Request limit must be positive: " + requestLimit);
+        }
+        this.cache = new DisassemblyCache(cacheCapacity);
+        this.jobs = jobs;
+        this.requestLimit = (int) Math.min(requestLimit, MAX_REQUEST_SIZE);
+    }
+
+    public int getRequestLimit() {
+        return requestLimit;
+    }
+
+    public static SocketAddress parseAddress(String address) {
+        if (address.chars().allMatch(Character::isDigit)) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+        }
+        return UnixDomainSocketAddress.of(address);
+    }
+
+    private static SocketChannel connect(SocketAddress address) throws IOException {
+        SocketChannel channel = SocketChannel.open(address instanceof UnixDomainSocketAddress
+                ? StandardProtocolFamily.UNIX : StandardProtocolFamily.INET);
+        channel.connect(address);
+        return channel;
+    }
+
+    public void serve(SocketAddress address) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(jobs);
+        boolean unix = address instanceof UnixDomainSocketAddress;
+        if (unix) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+        }
+        try (ServerSocketChannel server = ServerSocketChannel.open(
+                unix ? StandardProtocolFamily.UNIX : StandardProtocolFamily.INET)) {
+            server.bind(address);
+            System.out.println("Listening on " + server.getLocalAddress());
+            while (true) {
+                SocketChannel client = server.accept();
+                executor.execute(() -> handle(client));
+            }
+        } finally {
+            executor.shutdownNow();
+            if (unix) {
+                Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+            }
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        try (client;
+             DataInputStream in = new DataInputStream(Channels.newInputStream(client));
+             DataOutputStream out = new DataOutputStream(Channels.newOutputStream(client))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (length == STATISTICS_REQUEST) {
+                    reply(out, STATUS_OK, cache.getStatistics().getBytes(StandardCharsets.US_ASCII));
+                    continue;
+                }
+                if (length < 0 || length > requestLimit) {
+                    reply(out, STATUS_ERROR, ("Invalid request size: " + length + ", limit is " + requestLimit)
+                            .getBytes(StandardCharsets.US_ASCII));
+                    return;
+                }
+                byte[] elf = new byte[length];
+                in.readFully(elf);
+                try {
+                    reply(out, STATUS_OK, disassemble(elf));
+                } catch (RuntimeException | AssertionError e) {
+                    reply(out, STATUS_ERROR, String.valueOf(e.getMessage()).getBytes(StandardCharsets.US_ASCII));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Connection error: " + e.getMessage());
+        }
+    }
+
+    private static void reply(DataOutputStream out, int status, byte[] payload) throws IOException {
+        out.writeInt(status);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+    }
+
+    public byte[] disassemble(byte[] elf) {
+        String key = hash(elf);
+        byte[] result = cache.get(key);
+        if (result == null) {
+            Metrics.recordRead(elf.length);
+            AsciiWriter writer = new AsciiWriter();
+            new Disassembly(new ELFParser(new ELFFile(ByteBuffer.wrap(elf)))).write(writer, null);
+            result = writer.toByteArray();
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    public static byte[] request(SocketAddress address, int length, byte[] elf) throws IOException {
+        try (SocketChannel channel = connect(address);
+             DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+             DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel))) {
+            IOException failure = null;
+            try {
+                out.writeInt(length);
+                out.write(elf);
+                out.flush();
+            } catch (IOException e) {
+                failure = e;
+            }
+            int status;
+            try {
+                status = in.readInt();
+            } catch (IOException e) {
+                throw failure == null ? e : failure;
+            }
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            if (status != STATUS_OK) {
+                throw new IOException("Server error: " + new String(payload, StandardCharsets.US_ASCII));
+            }
+            return payload;
+        }
+    }
+
+    public static byte[] request(SocketAddress address, Path input) throws IOException {
+        byte[] elf = Files.readAllBytes(input);
+        return request(address, elf.length, elf);
+    }
+
+    public static String requestStatistics(SocketAddress address) throws IOException {
+        return new String(request(address, STATISTICS_REQUEST, new byte[0]), StandardCharsets.US_ASCII);
+    }
+}
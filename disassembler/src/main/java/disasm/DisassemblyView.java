@@ -0,0 +1,279 @@
+package disasm;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DisassemblyView {
+    public static final int PAGE_SIZE = 1 << 12;
+    public static final int DEFAULT_PAGE_CAPACITY = 1 << 10;
+    private final ELFParser parser;
+    private LabelTable labels;
+    private final int[] sections;
+    private final long[] starts;
+    private final long[] ends;
+    private final PageTable[] pageTables;
+    private final LinkedHashMap<Long, Page> pages;
+
+    public DisassemblyView(ELFParser parser) {
+        this(parser, DEFAULT_PAGE_CAPACITY);
+    }
+
+    public DisassemblyView(ELFParser parser, int pageCapacity) {
+        this.parser = parser;
+        this.sections = parser.getExecutableSections();
+        this.starts = new long[sections.length];
+        this.ends = new long[sections.length];
+        this.pageTables = new PageTable[sections.length];
+        SectionTable table = parser.getSectionTable();
+        for (int i = 0; i < sections.length; i++) {
+            starts[i] = table.getAddress(sections[i]);
+            ends[i] = starts[i] + table.getSize(sections[i]);
+            pageTables[i] = new PageTable(table.getOffset(sections[i]), table.getSize(sections[i]));
+        }
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Page> eldest) {
+                return size() > pageCapacity;
+            }
+        };
+    }
+
+    public static DisassemblyView open(Path path) throws IOException {
+        return new DisassemblyView(new ELFParser(ELFFile.map(path)));
+    }
+
+    public ELFParser getParser() {
+        return parser;
+    }
+
+    public synchronized LabelTable getLabels() {
+        if (labels == null) {
+            LongHashSet[] targets = new LongHashSet[sections.length];
+            for (int i = 0; i < sections.length; i++) {
+                PageTable table = pageTables[i];
+                table.extend(parser.getFile(), table.size);
+                targets[i] = new LongHashSet();
+                for (int number = 0; number < table.count; number++) {
+                    int to = number + 1 < table.count ? table.getStart(number + 1) : table.size;
+                    targets[i].addAll(new SectionDisassembly(parser, sections[i], table.getStart(number), to)
+                            .getTargets());
+                }
+            }
+            labels = new LabelTable(parser.getSymbolTable(), sections, targets);
+        }
+        return labels;
+    }
+
+    public synchronized List<DisassembledInstruction> range(long from, long to) {
+        List<DisassembledInstruction> result = new ArrayList<>();
+        for (int section = 0; section < sections.length; section++) {
+            if (ends[section] <= from || starts[section] >= to) {
+                continue;
+            }
+            long start = Math.max(from, starts[section]);
+            Page page = findPage(section, start);
+            int index = page.indexOf(start);
+            while (page != null && index < page.count && page.getAddress(index) < to) {
+                result.add(page.get(index++));
+                if (index == page.count) {
+                    page = nextPage(section, page);
+                    index = page == null ? 0 : page.first;
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized List<DisassembledInstruction> around(long address, int before, int after) {
+        List<DisassembledInstruction> result = new ArrayList<>();
+        int section = findSection(address);
+        if (section < 0) {
+            return result;
+        }
+        Page page = findPage(section, address);
+        int index = page.indexOf(address);
+        for (int i = 0; i < before; i++) {
+            if (index == page.first) {
+                if (page.start == starts[section]) {
+                    break;
+                }
+                page = findPage(section, page.start - 1);
+                index = page.count;
+            }
+            index--;
+        }
+        int count = Integer.MAX_VALUE;
+        while (page != null && result.size() < count) {
+            if (index == page.count) {
+                page = nextPage(section, page);
+                index = page == null ? 0 : page.first;
+                continue;
+            }
+            DisassembledInstruction instruction = page.get(index++);
+            result.add(instruction);
+            if (count == Integer.MAX_VALUE && instruction.getAddress() + instruction.getLength() > address) {
+                count = result.size() + after;
+            }
+        }
+        return result;
+    }
+
+    public synchronized void append(AsciiWriter out, List<DisassembledInstruction> instructions) {
+        LabelTable labels = getLabels();
+        Page page = null;
+        for (DisassembledInstruction instruction : instructions) {
+            long address = instruction.getAddress();
+            if (page == null || address < page.start || address >= page.end) {
+                page = findPage(findSection(address), address);
+            }
+            String name = labels.forSection(page.disassembly.getSection()).getAddressLabel(address);
+            if (!name.isEmpty()) {
+                out.put('\n').putHex(address, 8).put("   <").put(name).put(">:\n");
+            }
+            page.disassembly.appendInstruction(out, page.indexOf(address), labels);
+        }
+    }
+
+    private int findSection(long address) {
+        for (int i = 0; i < sections.length; i++) {
+            if (address >= starts[i] && address < ends[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Page findPage(int section, long address) {
+        PageTable table = pageTables[section];
+        int offset = (int) (address - starts[section]);
+        table.extend(parser.getFile(), offset);
+        return getPage(section, table.indexOf(offset));
+    }
+
+    private Page nextPage(int section, Page page) {
+        PageTable table = pageTables[section];
+        table.extend(parser.getFile(), page.to);
+        int next = table.indexOf(page.to);
+        return table.getStart(next) == page.to ? getPage(section, next) : null;
+    }
+
+    private Page getPage(int section, int number) {
+        PageTable table = pageTables[section];
+        long start = starts[section] + table.getStart(number);
+        Page page = pages.get(start);
+        if (page == null) {
+            table.extend(parser.getFile(), table.getStart(number) + 1);
+            int from = table.getStart(number) - table.getPreviousLength(number);
+            int to = number + 1 < table.count ? table.getStart(number + 1) : table.size;
+            page = new Page(new SectionDisassembly(parser, sections[section], from, to),
+                    table.getPreviousLength(number) == 0 ? 0 : 1, start, starts[section] + to, to);
+            pages.put(start, page);
+        }
+        return page;
+    }
+
+    private static final class PageTable {
+        private final int position;
+        private final int size;
+        private int[] pageStarts = new int[16];
+        private byte[] previousLengths = new byte[16];
+        private int count = 1;
+        private boolean complete;
+
+        private PageTable(int position, int size) {
+            this.position = position;
+            this.size = size;
+            this.complete = size < 2;
+        }
+
+        private void extend(ELFFile file, int offset) {
+            while (!complete && pageStarts[count - 1] <= offset) {
+                int start = pageStarts[count - 1];
+                int next = start;
+                int length = 0;
+                while (next - start < PAGE_SIZE && next + 1 < size) {
+                    length = SectionDisassembly.getInstructionLength(file, position, size, next);
+                    next += length;
+                }
+                if (next + 1 >= size) {
+                    complete = true;
+                    return;
+                }
+                if (count == pageStarts.length) {
+                    pageStarts = Arrays.copyOf(pageStarts, count * 2);
+                    previousLengths = Arrays.copyOf(previousLengths, count * 2);
+                }
+                pageStarts[count] = next;
+                previousLengths[count++] = (byte) length;
+            }
+        }
+
+        private int indexOf(int offset) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (pageStarts[middle] <= offset) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return Math.max(low - 1, 0);
+        }
+
+        private int getStart(int number) {
+            return pageStarts[number];
+        }
+
+        private int getPreviousLength(int number) {
+            return previousLengths[number];
+        }
+    }
+
+    private static final class Page {
+        private final SectionDisassembly disassembly;
+        private final int first;
+        private final int count;
+        private final int to;
+        private final long start;
+        private final long end;
+
+        private Page(SectionDisassembly disassembly, int first, long start, long end, int to) {
+            this.disassembly = disassembly;
+            this.first = first;
+            this.count = disassembly.getCount();
+            this.start = start;
+            this.end = end;
+            this.to = to;
+        }
+
+        private long getAddress(int index) {
+            return disassembly.getAddress(index);
+        }
+
+        private int indexOf(long address) {
+            int low = first;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (disassembly.getAddress(middle) + disassembly.getLength(middle) <= address) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private DisassembledInstruction get(int index) {
+            return new DisassembledInstruction(disassembly.getAddress(index), disassembly.getCommand(index),
+                    disassembly.getLength(index), disassembly.getInstruction(index), disassembly.getTarget(index));
+        }
+    }
+}
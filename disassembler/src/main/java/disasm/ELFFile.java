@@ -0,0 +1,74 @@
+package disasm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ELFFile {
+    private final ByteBuffer buffer;
+
+    public ELFFile(ByteBuffer buffer) {
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public static ELFFile map(Path path) throws IOException {
+        long start = Metrics.start();
+        long allocation = Metrics.startAllocation();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File is too large: " + channel.size() + " bytes");
+            }
+            ELFFile result = new ELFFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            Metrics.recordRead(channel.size());
+            Metrics.end(Metrics.Phase.MAP, start, allocation);
+            return result;
+        }
+    }
+
+    public int size() {
+        return buffer.capacity();
+    }
+
+    public int getByte(int pos) {
+        return buffer.get(pos) & 0xff;
+    }
+
+    public int getHalf(int pos) {
+        return buffer.getShort(pos) & 0xffff;
+    }
+
+    public int getWord(int pos) {
+        return buffer.getInt(pos);
+    }
+
+    public long getDoubleWord(int pos) {
+        return buffer.getLong(pos);
+    }
+
+    public ELFFile slice(int pos, int size) {
+        return new ELFFile(buffer.slice(pos, size));
+    }
+
+    public ByteBuffer getBytes(int pos, int size) {
+        return buffer.slice(pos, size).asReadOnlyBuffer();
+    }
+
+    public int getStringLength(int pos) {
+        int end = pos;
+        while (buffer.get(end) != 0) {
+            end++;
+        }
+        return end - pos;
+    }
+
+    public String getString(int pos) {
+        char[] result = new char[getStringLength(pos)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (char) getByte(pos + i);
+        }
+        return new String(result);
+    }
+}
@@ -0,0 +1,88 @@
+package disasm;
+
+public enum ELFLayout {
+    ELF32(4, 32, 46, 48, 50,
+            0x08, 0x0c, 0x10, 0x14, 0x18, 0x1c, 0x24,
+            4, 8, 12, 13, 14),
+    ELF64(8, 40, 58, 60, 62,
+            0x08, 0x10, 0x18, 0x20, 0x28, 0x2c, 0x38,
+            8, 16, 4, 5, 6);
+
+    public final int ADDRESS_SIZE;
+    public final int SECTION_HEADER_TABLE_OFFSET;
+    public final int SECTION_HEADER_SIZE_OFFSET;
+    public final int SECTION_COUNT_OFFSET;
+    public final int SECTION_NAMES_INDEX_OFFSET;
+    public final int SECTION_FLAGS;
+    public final int SECTION_ADDRESS;
+    public final int SECTION_OFFSET;
+    public final int SECTION_SIZE;
+    public final int SECTION_LINK;
+    public final int SECTION_INFO;
+    public final int SECTION_ENTRY_SIZE;
+    public final int SYMBOL_VALUE;
+    public final int SYMBOL_SIZE;
+    public final int SYMBOL_INFO;
+    public final int SYMBOL_OTHER;
+    public final int SYMBOL_SHNDX;
+
+    ELFLayout(int addressSize, int sectionHeaderTableOffset, int sectionHeaderSizeOffset,
+              int sectionCountOffset, int sectionNamesIndexOffset,
+              int sectionFlags, int sectionAddress, int sectionOffset, int sectionSize,
+              int sectionLink, int sectionInfo, int sectionEntrySize,
+              int symbolValue, int symbolSize, int symbolInfo, int symbolOther, int symbolShndx) {
+        ADDRESS_SIZE = addressSize;
+        SECTION_HEADER_TABLE_OFFSET = sectionHeaderTableOffset;
+        SECTION_HEADER_SIZE_OFFSET = sectionHeaderSizeOffset;
+        SECTION_COUNT_OFFSET = sectionCountOffset;
+        SECTION_NAMES_INDEX_OFFSET = sectionNamesIndexOffset;
+        SECTION_FLAGS = sectionFlags;
+        SECTION_ADDRESS = sectionAddress;
+        SECTION_OFFSET = sectionOffset;
+        SECTION_SIZE = sectionSize;
+        SECTION_LINK = sectionLink;
+        SECTION_INFO = sectionInfo;
+        SECTION_ENTRY_SIZE = sectionEntrySize;
+        SYMBOL_VALUE = symbolValue;
+        SYMBOL_SIZE = symbolSize;
+        SYMBOL_INFO = symbolInfo;
+        SYMBOL_OTHER = symbolOther;
+        SYMBOL_SHNDX = symbolShndx;
+    }
+
+    public static ELFLayout of(int elfClass) {
+        return switch (elfClass) {
+            case 1 -> ELF32;
+            case 2 -> ELF64;
+            default -> throw new UnsupportedOperationException("Unsupported ELF class: " + elfClass);
+        };
+    }
+
+    public int getXlen() {
+        return ADDRESS_SIZE * 8;
+    }
+
+    public int getSymbolEntrySize() {
+        return this == ELF32 ? 16 : 24;
+    }
+
+    public long getAddress(ELFFile file, int pos) {
+        return ADDRESS_SIZE == 8 ? file.getDoubleWord(pos) : file.getWord(pos) & 0xffffffffL;
+    }
+
+    public int getSize(ELFFile file, int pos) {
+        long size = getAddress(file, pos);
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            throw new UnsupportedOperationException("Size out of range: " + size);
+        }
+        return (int) size;
+    }
+
+    public int getOffset(ELFFile file, int pos) {
+        long offset = getAddress(file, pos);
+        if (offset < 0 || offset > file.size()) {
+            throw new UnsupportedOperationException("File offset out of range: " + offset);
+        }
+        return (int) offset;
+    }
+}
@@ -0,0 +1,127 @@
+package disasm;
+
+import java.util.Arrays;
+
+@SuppressWarnings("DuplicatedCode")
+public class ELFParser {
+    private final ELFFile file;
+    private final ELFLayout layout;
+    private final SectionTable sectionTable;
+    private final SymbolTable symbolTable;
+    private final RelocationTable relocationTable;
+    private final int[] executableSections;
+    public final int SECTION_HEADER_TABLE_POSITION;
+    public final int SECTION_HEADER_SEGMENT_SIZE;
+    public final int STRING_TABLE_HEADER_POSITION;
+    public final int STRING_TABLE_POSITION;
+    public final int SYMTAB_STRING_TABLE_POSITION;
+    public final int SYMTAB_STRING_TABLE_SIZE;
+    public final int SECTION_COUNT;
+    public final int SYMBOL_TABLE_POSITION;
+    public final int SYMBOL_TABLE_SIZE;
+    public final int SYMBOL_TABLE_SECTION_SIZE;
+    public final int SYMBOL_TABLE_SECTION_COUNT;
+
+    public ELFParser(final ELFFile file) {
+        this.file = file;
+
+        if (file.getByte(0) != 0x7f || file.getByte(1) != 0x45 || file.getByte(2) != 0x4c || file.getByte(3) != 0x46) {
+            throw new UnsupportedOperationException("Unsupported file format");
+        }
+        layout = ELFLayout.of(file.getByte(4));
+        if (file.getByte(5) != 1) {
+            throw new UnsupportedOperationException("Supports only little-endian file");
+        }
+
+        long start = Metrics.start();
+        long allocation = Metrics.startAllocation();
+        SECTION_COUNT = file.getHalf(layout.SECTION_COUNT_OFFSET);
+        SECTION_HEADER_TABLE_POSITION = layout.getOffset(file, layout.SECTION_HEADER_TABLE_OFFSET);
+        SECTION_HEADER_SEGMENT_SIZE = file.getHalf(layout.SECTION_HEADER_SIZE_OFFSET);
+        STRING_TABLE_HEADER_POSITION = SECTION_HEADER_SEGMENT_SIZE * file.getHalf(layout.SECTION_NAMES_INDEX_OFFSET)
+                + SECTION_HEADER_TABLE_POSITION;
+        STRING_TABLE_POSITION = layout.getOffset(file, STRING_TABLE_HEADER_POSITION + layout.SECTION_OFFSET);
+        sectionTable = new SectionTable(file, layout, SECTION_HEADER_TABLE_POSITION, SECTION_HEADER_SEGMENT_SIZE,
+                SECTION_COUNT, file.getHalf(layout.SECTION_NAMES_INDEX_OFFSET));
+
+        int symbolTableSection = sectionTable.indexOf(".symtab");
+        if (symbolTableSection < 0) {
+            throw new AssertionError("Symbol table not found");
+        }
+        SYMBOL_TABLE_POSITION = sectionTable.getOffset(symbolTableSection);
+        SYMBOL_TABLE_SIZE = sectionTable.getSize(symbolTableSection);
+        SYMBOL_TABLE_SECTION_SIZE = layout.getSymbolEntrySize();
+        SYMBOL_TABLE_SECTION_COUNT = SYMBOL_TABLE_SIZE / SYMBOL_TABLE_SECTION_SIZE;
+
+        int executableCount = 0;
+        int[] executable = new int[SECTION_COUNT];
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            if (sectionTable.isExecutable(i) && sectionTable.getSize(i) > 0) {
+                executable[executableCount++] = i;
+            }
+        }
+        if (executableCount == 0) {
+            throw new AssertionError("Text not found");
+        }
+        executableSections = Arrays.copyOf(executable, executableCount);
+        Metrics.end(Metrics.Phase.SECTIONS, start, allocation);
+
+        start = Metrics.start();
+        allocation = Metrics.startAllocation();
+        int symtabStringTableSection = sectionTable.indexOf(".strtab");
+        if (symtabStringTableSection < 0) {
+            throw new AssertionError("String table for symbol table not found");
+        }
+        SYMTAB_STRING_TABLE_POSITION = sectionTable.getOffset(symtabStringTableSection);
+        SYMTAB_STRING_TABLE_SIZE = sectionTable.getSize(symtabStringTableSection);
+        ELFFile symtabStringTable = file.slice(SYMTAB_STRING_TABLE_POSITION, SYMTAB_STRING_TABLE_SIZE);
+        symbolTable = new SymbolTable(file, layout, SYMBOL_TABLE_POSITION, SYMBOL_TABLE_SECTION_COUNT,
+                symtabStringTable);
+        relocationTable = new RelocationTable(file, layout, sectionTable, symbolTable);
+        Metrics.end(Metrics.Phase.SYMBOLS, start, allocation);
+    }
+
+    public ELFFile getFile() {
+        return file;
+    }
+
+    public ELFLayout getLayout() {
+        return layout;
+    }
+
+    public int getXlen() {
+        return layout.getXlen();
+    }
+
+    public int getByte(int pos) {
+        return file.getByte(pos);
+    }
+
+    public SectionTable getSectionTable() {
+        return sectionTable;
+    }
+
+    public int[] getExecutableSections() {
+        return executableSections.clone();
+    }
+
+    public String getSectionName(int section) {
+        return sectionTable.getName(section);
+    }
+
+    public String getSymbolTableString() {
+        return symbolTable.toString();
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public RelocationTable getRelocationTable() {
+        return relocationTable;
+    }
+
+    public String getAddressName(long address) {
+        return symbolTable.getAddressName(address);
+    }
+}
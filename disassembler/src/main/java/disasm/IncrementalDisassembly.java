@@ -0,0 +1,282 @@
+package disasm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class IncrementalDisassembly {
+    private static final int MAGIC = InstructionPrinter.ALIASES ? 0x52564936 : 0x52564935;
+    private final ELFParser parser;
+    private final Path statePath;
+    private final Map<String, FunctionState> previous;
+    private final List<FunctionState> current = new ArrayList<>();
+    private final MessageDigest digest;
+    private int reused = 0;
+
+    public IncrementalDisassembly(ELFParser parser, Path statePath) throws IOException {
+        this.parser = parser;
+        this.statePath = statePath;
+        this.previous = readState(statePath);
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    public int getFunctionCount() {
+        return current.size();
+    }
+
+    public int getReusedCount() {
+        return reused;
+    }
+
+    public void write(AsciiWriter out) throws IOException {
+        int[] executable = parser.getExecutableSections();
+        SectionDisassembly[] sections = new SectionDisassembly[executable.length];
+        int[][] bounds = new int[executable.length][];
+        FunctionState[][] functions = new FunctionState[executable.length][];
+        LongHashSet[] targets = new LongHashSet[executable.length];
+
+        for (int s = 0; s < sections.length; s++) {
+            SectionDisassembly section = new SectionDisassembly(parser, executable[s], null, false);
+            sections[s] = section;
+            bounds[s] = findBounds(section, parser.getSymbolTable().getFunctionAddresses(executable[s]));
+            targets[s] = new LongHashSet();
+            functions[s] = new FunctionState[bounds[s].length - 1];
+            int region = 0;
+            if (bounds[s][0] != 0) {
+                targets[s].addAll(section.decode(0, bounds[s][0]));
+            }
+            for (int i = 0; i + 1 < bounds[s].length; i++) {
+                int from = bounds[s][i];
+                int to = bounds[s][i + 1];
+                byte[] bytesDigest = digestBytes(section, from, to);
+                FunctionState state = previous.get(key(section.getName(), section.getAddress(from)));
+                if (state != null && Arrays.equals(state.digest, bytesDigest)) {
+                    for (long target : state.targets) {
+                        targets[s].add(target);
+                    }
+                } else {
+                    state = new FunctionState(section.getName(), section.getAddress(from), bytesDigest);
+                    LongHashSet functionTargets = section.decode(from, to);
+                    targets[s].addAll(functionTargets);
+                    state.targets = functionTargets.toSortedArray();
+                    state.decoded = true;
+                }
+                functions[s][region++] = state;
+            }
+        }
+
+        LabelTable labels = new LabelTable(parser.getSymbolTable(), executable, targets);
+        AsciiWriter buffer = new AsciiWriter();
+        for (int s = 0; s < sections.length; s++) {
+            SectionDisassembly section = sections[s];
+            if (s > 0) {
+                out.put('\n');
+            }
+            out.put("Disassembly of section ").put(section.getName()).put(":\n");
+            if (bounds[s][0] != 0) {
+                section.append(out, 0, bounds[s][0], labels);
+            }
+            for (int i = 0; i < functions[s].length; i++) {
+                int from = bounds[s][i];
+                int to = bounds[s][i + 1];
+                FunctionState state = functions[s][i];
+                if (!state.decoded) {
+                    byte[] context = digestContext(section, from, to, state.references, labels);
+                    if (Arrays.equals(state.context, context)) {
+                        out.put(state.text);
+                        current.add(state);
+                        reused++;
+                        continue;
+                    }
+                    FunctionState stale = state;
+                    state = new FunctionState(stale.section, stale.address, stale.digest);
+                    state.targets = stale.targets;
+                    section.decode(from, to);
+                }
+                if (from > 0) {
+                    section.decode(from - 1, from);
+                }
+                buffer.reset();
+                section.append(buffer, from, to, labels);
+                state.references = section.getReferences(from, to);
+                state.context = digestContext(section, from, to, state.references, labels);
+                state.text = buffer.toByteArray();
+                out.put(state.text);
+                current.add(state);
+            }
+        }
+
+        out.put("\nSYMBOL TABLE:\n");
+        parser.getSymbolTable().write(out);
+        writeState(statePath, current);
+    }
+
+    private static int[] findBounds(SectionDisassembly section, long[] functionAddresses) {
+        int count = section.getCount();
+        long start = section.getAddress(0);
+        long end = section.getAddress(count);
+        int[] result = new int[functionAddresses.length + 1];
+        int size = 0;
+        for (long address : functionAddresses) {
+            if (address < start || address >= end) {
+                continue;
+            }
+            int index = section.indexOf(address);
+            if (size == 0 || result[size - 1] != index) {
+                result[size++] = index;
+            }
+        }
+        if (size == 0 || result[size - 1] != count) {
+            result[size++] = count;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private byte[] digestBytes(SectionDisassembly section, int from, int to) {
+        digest.reset();
+        updateLong(parser.getXlen());
+        updateLong(section.getAddress(from));
+        if (from > 0) {
+            updateLong(section.getCommand(from - 1));
+            updateLong(section.getLength(from - 1));
+        }
+        int position = section.getPosition(from);
+        digest.update(parser.getFile().getBytes(position, section.getPosition(to) - position));
+        int first = from > 0 ? from - 1 : from;
+        AsciiWriter relocations = new AsciiWriter();
+        parser.getRelocationTable().append(relocations, section.getSection(), section.getOffset(first),
+                section.getOffset(to) - section.getOffset(first), section.getAddress(first));
+        digest.update(relocations.toByteArray());
+        return digest.digest();
+    }
+
+    private byte[] digestContext(SectionDisassembly section, int from, int to, long[] references, LabelTable labels) {
+        digest.reset();
+        AsciiWriter text = new AsciiWriter();
+        labels = labels.forSection(section.getSection());
+        long end = section.getAddress(to);
+        for (int label = labels.firstIndexFrom(section.getAddress(from));
+             label < labels.size() && labels.getAddress(label) < end; label++) {
+            text.putHex(labels.getAddress(label), 1).put(labels.getName(label)).put('\n');
+        }
+        for (long reference : references) {
+            text.putHex(reference, 1);
+            labels.appendReference(text, reference);
+            text.put('\n');
+        }
+        digest.update(text.toByteArray());
+        return digest.digest();
+    }
+
+    private void updateLong(long value) {
+        for (int i = 0; i < 8; i++) {
+            digest.update((byte) (value >>> (i * 8)));
+        }
+    }
+
+    private static String key(String section, long address) {
+        return section + ':' + Long.toHexString(address);
+    }
+
+    private static Map<String, FunctionState> readState(Path path) throws IOException {
+        Map<String, FunctionState> result = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                return result;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                FunctionState state = new FunctionState(in.readUTF(), in.readLong(), readBytes(in));
+                state.context = readBytes(in);
+                state.targets = readLongs(in);
+                state.references = readLongs(in);
+                state.text = readBytes(in);
+                result.put(key(state.section, state.address), state);
+            }
+        } catch (NoSuchFileException e) {
+            return result;
+        } catch (EOFException e) {
+            return new HashMap<>();
+        }
+        return result;
+    }
+
+    private static void writeState(Path path, List<FunctionState> states) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(states.size());
+            for (FunctionState state : states) {
+                out.writeUTF(state.section);
+                out.writeLong(state.address);
+                writeBytes(out, state.digest);
+                writeBytes(out, state.context);
+                writeLongs(out, state.targets);
+                writeLongs(out, state.references);
+                writeBytes(out, state.text);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] result = new byte[in.readInt()];
+        in.readFully(result);
+        return result;
+    }
+
+    private static long[] readLongs(DataInputStream in) throws IOException {
+        long[] result = new long[in.readInt()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = in.readLong();
+        }
+        return result;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] value) throws IOException {
+        out.writeInt(value.length);
+        for (long l : value) {
+            out.writeLong(l);
+        }
+    }
+
+    private static class FunctionState {
+        private final String section;
+        private final long address;
+        private final byte[] digest;
+        private byte[] context;
+        private long[] targets;
+        private long[] references;
+        private byte[] text;
+        private boolean decoded;
+
+        private FunctionState(String section, long address, byte[] digest) {
+            this.section = section;
+            this.address = address;
+            this.digest = digest;
+        }
+    }
+}
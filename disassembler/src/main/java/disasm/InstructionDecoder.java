@@ -0,0 +1,244 @@
+package disasm;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class InstructionDecoder {
+    public static final InstructionDecoder RV32 = new InstructionDecoder(32);
+    public static final InstructionDecoder RV64 = new InstructionDecoder(64);
+
+    private static final int NODE_HEADER = 5;
+    private static final int MAX_NODE_BITS = 10;
+    private final int xlen;
+    private final int shiftMask;
+    private final int[] entryMask;
+    private final int[] entryMatch;
+    private final int[] entryId;
+    private int[] tree = new int[1 << 12];
+    private int treeSize = 0;
+    private int[] leaves = new int[1 << 8];
+    private int leavesSize = 1;
+
+    private InstructionDecoder(int xlen) {
+        this.xlen = xlen;
+        this.shiftMask = xlen - 1;
+        List<InstructionTable.Entry> entries = InstructionTable.getEntries(xlen);
+        entryMask = new int[entries.size()];
+        entryMatch = new int[entries.size()];
+        entryId = new int[entries.size()];
+        int[] candidates = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            entryMask[i] = entries.get(i).getMask();
+            entryMatch[i] = entries.get(i).getMatch();
+            entryId[i] = entries.get(i).getMnemonic().ordinal();
+            candidates[i] = i;
+        }
+        build(candidates, 0b11);
+    }
+
+    public static InstructionDecoder forXlen(int xlen) {
+        return switch (xlen) {
+            case 32 -> RV32;
+            case 64 -> RV64;
+            default -> throw new UnsupportedOperationException("Unsupported XLEN: " + xlen);
+        };
+    }
+
+    public int getXlen() {
+        return xlen;
+    }
+
+    private int build(int[] candidates, int decided) {
+        if (candidates.length == 0) {
+            return ~0;
+        }
+        int common = ~decided;
+        int[] cared = new int[32];
+        for (int candidate : candidates) {
+            common &= entryMask[candidate];
+            for (int bit = 0; bit < 32; bit++) {
+                if ((entryMask[candidate] & ~decided & (1 << bit)) != 0) {
+                    cared[bit]++;
+                }
+            }
+        }
+        if (common == 0) {
+            return leaf(candidates);
+        }
+
+        int first = longestRun(common, MAX_NODE_BITS);
+        int second = 0;
+        int majority = 0;
+        for (int bit = 0; bit < 32; bit++) {
+            if (cared[bit] * 2 > candidates.length) {
+                majority |= 1 << bit;
+            }
+        }
+        int remaining = MAX_NODE_BITS - Integer.bitCount(first);
+        if (remaining > 0) {
+            second = longestRun(majority & ~first, remaining);
+        }
+
+        int firstShift = Integer.numberOfTrailingZeros(first);
+        int firstWidth = Integer.bitCount(first);
+        int secondShift = second == 0 ? 0 : Integer.numberOfTrailingZeros(second);
+        int size = 1 << (firstWidth + Integer.bitCount(second));
+        int node = allocateNode(size);
+        tree[node] = firstShift;
+        tree[node + 1] = first >>> firstShift;
+        tree[node + 2] = secondShift;
+        tree[node + 3] = second >>> secondShift;
+        tree[node + 4] = firstWidth;
+
+        int field = first | second;
+        int[] selected = new int[candidates.length];
+        for (int key = 0; key < size; key++) {
+            int value = ((key & tree[node + 1]) << firstShift) | ((key >>> firstWidth) << secondShift);
+            int count = 0;
+            for (int candidate : candidates) {
+                if ((value & entryMask[candidate] & field) == (entryMatch[candidate] & field)) {
+                    selected[count++] = candidate;
+                }
+            }
+            int child = build(Arrays.copyOf(selected, count), decided | field);
+            tree[node + NODE_HEADER + key] = child;
+        }
+        return node;
+    }
+
+    private static int longestRun(int bits, int limit) {
+        int best = 0;
+        int bestLength = 0;
+        for (int low = 0; low < 32; low++) {
+            int length = 0;
+            while (low + length < 32 && length < limit && (bits & (1 << (low + length))) != 0) {
+                length++;
+            }
+            if (length > bestLength) {
+                bestLength = length;
+                best = (int) (((1L << length) - 1) << low);
+            }
+        }
+        return best;
+    }
+
+    private int allocateNode(int size) {
+        int node = treeSize;
+        treeSize += NODE_HEADER + size;
+        if (treeSize > tree.length) {
+            tree = Arrays.copyOf(tree, Math.max(tree.length * 2, treeSize));
+        }
+        return node;
+    }
+
+    private int leaf(int[] candidates) {
+        Integer[] order = new Integer[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            order[i] = candidates[i];
+        }
+        Arrays.sort(order, (left, right) -> Integer.bitCount(entryMask[right]) - Integer.bitCount(entryMask[left]));
+        int leaf = leavesSize;
+        leavesSize += candidates.length + 1;
+        if (leavesSize > leaves.length) {
+            leaves = Arrays.copyOf(leaves, Math.max(leaves.length * 2, leavesSize));
+        }
+        leaves[leaf] = candidates.length;
+        for (int i = 0; i < order.length; i++) {
+            leaves[leaf + 1 + i] = order[i];
+        }
+        return ~leaf;
+    }
+
+    public static boolean isCompressed(int command) {
+        return (command & 0b11) != 0b11;
+    }
+
+    public static int getOpcode(int command) {
+        return command & 0x7f;
+    }
+
+    public static int getFunct3(int command) {
+        return (command >>> 12) & 0x7;
+    }
+
+    public static int getRd(int command) {
+        return (command >>> 7) & 0x1f;
+    }
+
+    public static int getRs1(int command) {
+        return (command >>> 15) & 0x1f;
+    }
+
+    public static int getRs2(int command) {
+        return (command >>> 20) & 0x1f;
+    }
+
+    public static int getImmediateI(int command) {
+        return command >> 20;
+    }
+
+    public static int getImmediateS(int command) {
+        return ((command >> 25) << 5) | ((command >>> 7) & 0x1f);
+    }
+
+    public static int getImmediateB(int command) {
+        return ((command >> 31) << 12)
+                | ((command << 4) & 0x800)
+                | ((command >>> 20) & 0x7e0)
+                | ((command >>> 7) & 0x1e);
+    }
+
+    public static int getImmediateU(int command) {
+        return command & 0xfffff000;
+    }
+
+    public static int getImmediateJ(int command) {
+        return ((command >> 31) << 20)
+                | (command & 0xff000)
+                | ((command >>> 9) & 0x800)
+                | ((command >>> 20) & 0x7fe);
+    }
+
+    public int getId(int command) {
+        int next = 0;
+        do {
+            int key = ((command >>> tree[next]) & tree[next + 1])
+                    | (((command >>> tree[next + 2]) & tree[next + 3]) << tree[next + 4]);
+            next = tree[next + NODE_HEADER + key];
+        } while (next >= 0);
+        int leaf = ~next;
+        for (int i = 1; i <= leaves[leaf]; i++) {
+            int entry = leaves[leaf + i];
+            if ((command & entryMask[entry]) == entryMatch[entry]) {
+                return entryId[entry];
+            }
+        }
+        return Mnemonic.UNKNOWN.ordinal();
+    }
+
+    public long decode(int command) {
+        int id = getId(command);
+        int rd = getRd(command);
+        int rs1 = getRs1(command);
+        int rs2 = getRs2(command);
+        return switch (Mnemonic.of(id).getFormat()) {
+            case R, FR, FCMP, F_TO_X, X_TO_F -> DecodedInstruction.pack(id, rd, rs1, rs2, 0);
+            case I, LOAD, JALR, FLOAD -> DecodedInstruction.pack(id, rd, rs1, 0, getImmediateI(command));
+            case SHIFT -> DecodedInstruction.pack(id, rd, rs1, 0, (command >>> 20) & shiftMask);
+            case STORE, FSTORE -> DecodedInstruction.pack(id, 0, rs1, rs2, getImmediateS(command));
+            case BRANCH -> DecodedInstruction.pack(id, 0, rs1, rs2, getImmediateB(command));
+            case U -> DecodedInstruction.pack(id, rd, 0, 0, getImmediateU(command));
+            case JAL -> DecodedInstruction.pack(id, rd, 0, 0, getImmediateJ(command));
+            case CSR, CSRI -> DecodedInstruction.pack(id, rd, rs1, 0, command >>> 20);
+            case LR, AMO -> DecodedInstruction.pack(id, rd, rs1, rs2, 0, (command >>> 25) & 0x3, 0);
+            case R4 -> DecodedInstruction.pack(id, rd, rs1, rs2, command >>> 27, getFunct3(command), 0);
+            case FR_RM, F1_RM, F_TO_X_RM, X_TO_F_RM -> DecodedInstruction.pack(id, rd, rs1, rs2, 0,
+                    getFunct3(command), 0);
+            case NONE -> DecodedInstruction.pack(id, 0, 0, 0, 0);
+        };
+    }
+
+    public long decode(int command, int length) {
+        return length == 2 ? CompressedDecoder.decode(command, xlen) : decode(command);
+    }
+}
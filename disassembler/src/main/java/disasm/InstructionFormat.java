@@ -0,0 +1,29 @@
+package disasm;
+
+public enum InstructionFormat {
+    NONE,
+    R,
+    I,
+    SHIFT,
+    LOAD,
+    STORE,
+    BRANCH,
+    U,
+    JAL,
+    JALR,
+    CSR,
+    CSRI,
+    LR,
+    AMO,
+    FLOAD,
+    FSTORE,
+    R4,
+    FR,
+    FR_RM,
+    F1_RM,
+    F_TO_X,
+    F_TO_X_RM,
+    X_TO_F,
+    X_TO_F_RM,
+    FCMP
+}
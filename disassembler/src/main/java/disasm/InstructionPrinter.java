@@ -0,0 +1,319 @@
+package disasm;
+
+public final class InstructionPrinter {
+    public static final boolean ALIASES = !Boolean.getBoolean("disasm.noAliases");
+    private static final String[] REGISTER_NAMES = {
+            "zero", "ra", "sp", "gp", "tp", "t0", "t1", "t2",
+            "s0", "s1", "a0", "a1", "a2", "a3", "a4", "a5",
+            "a6", "a7", "s2", "s3", "s4", "s5", "s6", "s7",
+            "s8", "s9", "s10", "s11", "t3", "t4", "t5", "t6"
+    };
+
+    private static final String[] FLOAT_REGISTER_NAMES = {
+            "ft0", "ft1", "ft2", "ft3", "ft4", "ft5", "ft6", "ft7",
+            "fs0", "fs1", "fa0", "fa1", "fa2", "fa3", "fa4", "fa5",
+            "fa6", "fa7", "fs2", "fs3", "fs4", "fs5", "fs6", "fs7",
+            "fs8", "fs9", "fs10", "fs11", "ft8", "ft9", "ft10", "ft11"
+    };
+    private static final String[] ROUNDING_MODES = {"rne", "rtz", "rdn", "rup", "rmm", "5", "6", "dyn"};
+    private static final String[] ORDERING_SUFFIXES = {"", ".rl", ".aq", ".aqrl"};
+    private static final int DYNAMIC_ROUNDING = 7;
+    private static final String[] CSR_NAMES = new String[1 << 12];
+
+    static {
+        String[][] names = {
+                {"0x001", "fflags"}, {"0x002", "frm"}, {"0x003", "fcsr"},
+                {"0x100", "sstatus"}, {"0x104", "sie"}, {"0x105", "stvec"}, {"0x106", "scounteren"},
+                {"0x140", "sscratch"}, {"0x141", "sepc"}, {"0x142", "scause"}, {"0x143", "stval"},
+                {"0x144", "sip"}, {"0x180", "satp"},
+                {"0x300", "mstatus"}, {"0x301", "misa"}, {"0x302", "medeleg"}, {"0x303", "mideleg"},
+                {"0x304", "mie"}, {"0x305", "mtvec"}, {"0x306", "mcounteren"}, {"0x310", "mstatush"},
+                {"0x320", "mcountinhibit"},
+                {"0x340", "mscratch"}, {"0x341", "mepc"}, {"0x342", "mcause"}, {"0x343", "mtval"},
+                {"0x344", "mip"},
+                {"0x7a0", "tselect"}, {"0x7a1", "tdata1"}, {"0x7a2", "tdata2"}, {"0x7a3", "tdata3"},
+                {"0x7b0", "dcsr"}, {"0x7b1", "dpc"}, {"0x7b2", "dscratch0"}, {"0x7b3", "dscratch1"},
+                {"0xb00", "mcycle"}, {"0xb02", "minstret"}, {"0xb80", "mcycleh"}, {"0xb82", "minstreth"},
+                {"0xc00", "cycle"}, {"0xc01", "time"}, {"0xc02", "instret"},
+                {"0xc80", "cycleh"}, {"0xc81", "timeh"}, {"0xc82", "instreth"},
+                {"0xf11", "mvendorid"}, {"0xf12", "marchid"}, {"0xf13", "mimpid"}, {"0xf14", "mhartid"}
+        };
+        for (String[] name : names) {
+            CSR_NAMES[Integer.decode(name[0])] = name[1];
+        }
+        for (int i = 0; i < 16; i++) {
+            CSR_NAMES[0x3b0 + i] = "pmpaddr" + i;
+            if (i < 4) {
+                CSR_NAMES[0x3a0 + i] = "pmpcfg" + i;
+            }
+        }
+        for (int i = 3; i < 32; i++) {
+            CSR_NAMES[0xb00 + i] = "mhpmcounter" + i;
+            CSR_NAMES[0xb80 + i] = "mhpmcounter" + i + "h";
+            CSR_NAMES[0xc00 + i] = "hpmcounter" + i;
+            CSR_NAMES[0xc80 + i] = "hpmcounter" + i + "h";
+            CSR_NAMES[0x320 + i] = "mhpmevent" + i;
+        }
+    }
+
+    private InstructionPrinter() {
+    }
+
+    public static String getRegisterName(int reg) {
+        if (reg < 0 || reg >= REGISTER_NAMES.length) {
+            throw new UnsupportedOperationException("Unsupported register: " + "\"" + reg + "\"");
+        }
+        return REGISTER_NAMES[reg];
+    }
+
+    public static String getFloatRegisterName(int reg) {
+        if (reg < 0 || reg >= FLOAT_REGISTER_NAMES.length) {
+            throw new UnsupportedOperationException("Unsupported register: " + "\"" + reg + "\"");
+        }
+        return FLOAT_REGISTER_NAMES[reg];
+    }
+
+    public static String getCsrName(int csr) {
+        String name = CSR_NAMES[csr & 0xfff];
+        return name == null ? "0x" + Integer.toHexString(csr & 0xfff) : name;
+    }
+
+    public static void append(AsciiWriter out, long address, int command, int length, long instruction,
+                              long target, LabelTable labels) {
+        if (ALIASES && appendAlias(out, address, command, length, instruction, target, labels)) {
+            return;
+        }
+        Mnemonic mnemonic = DecodedInstruction.getMnemonic(instruction);
+        int rm = DecodedInstruction.getRm(instruction);
+        String suffix = switch (mnemonic.getFormat()) {
+            case LR, AMO -> ORDERING_SUFFIXES[rm & 0x3];
+            default -> "";
+        };
+        appendPrefix(out, address, command, length, mnemonic.getText(), suffix);
+
+        int rd = DecodedInstruction.getRd(instruction);
+        int rs1 = DecodedInstruction.getRs1(instruction);
+        int rs2 = DecodedInstruction.getRs2(instruction);
+        int immediate = DecodedInstruction.getImmediate(instruction);
+        switch (mnemonic.getFormat()) {
+            case R -> out.put(REGISTER_NAMES[rd]).put(',')
+                    .put(REGISTER_NAMES[rs1]).put(',')
+                    .put(REGISTER_NAMES[rs2]);
+            case I, SHIFT -> out.put(REGISTER_NAMES[rd]).put(',')
+                    .put(REGISTER_NAMES[rs1]).put(',')
+                    .putDecimal(immediate);
+            case LOAD, JALR -> out.put(REGISTER_NAMES[rd]).put(',')
+                    .putDecimal(immediate).put('(')
+                    .put(REGISTER_NAMES[rs1]).put(')');
+            case STORE -> out.put(REGISTER_NAMES[rs2]).put(',')
+                    .putDecimal(immediate).put('(')
+                    .put(REGISTER_NAMES[rs1]).put(')');
+            case BRANCH -> {
+                out.put(REGISTER_NAMES[rs1]).put(',')
+                        .put(REGISTER_NAMES[rs2]).put(',');
+                appendTarget(out, target, labels);
+            }
+            case U -> out.put(REGISTER_NAMES[rd]).put(",0x").putHex(immediate >>> 12, 1);
+            case JAL -> {
+                out.put(REGISTER_NAMES[rd]).put(',');
+                appendTarget(out, target, labels);
+            }
+            case CSR -> out.put(REGISTER_NAMES[rd]).put(',')
+                    .put(getCsrName(immediate)).put(',')
+                    .put(REGISTER_NAMES[rs1]);
+            case CSRI -> out.put(REGISTER_NAMES[rd]).put(',')
+                    .put(getCsrName(immediate)).put(',')
+                    .putDecimal(rs1);
+            case LR -> out.put(REGISTER_NAMES[rd]).put(",(")
+                    .put(REGISTER_NAMES[rs1]).put(')');
+            case AMO -> out.put(REGISTER_NAMES[rd]).put(',')
+                    .put(REGISTER_NAMES[rs2]).put(",(")
+                    .put(REGISTER_NAMES[rs1]).put(')');
+            case FLOAD -> out.put(FLOAT_REGISTER_NAMES[rd]).put(',')
+                    .putDecimal(immediate).put('(')
+                    .put(REGISTER_NAMES[rs1]).put(')');
+            case FSTORE -> out.put(FLOAT_REGISTER_NAMES[rs2]).put(',')
+                    .putDecimal(immediate).put('(')
+                    .put(REGISTER_NAMES[rs1]).put(')');
+            case R4 -> {
+                out.put(FLOAT_REGISTER_NAMES[rd]).put(',')
+                        .put(FLOAT_REGISTER_NAMES[rs1]).put(',')
+                        .put(FLOAT_REGISTER_NAMES[rs2]).put(',')
+                        .put(FLOAT_REGISTER_NAMES[DecodedInstruction.getRs3(instruction)]);
+                appendRoundingMode(out, rm);
+            }
+            case FR -> out.put(FLOAT_REGISTER_NAMES[rd]).put(',')
+                    .put(FLOAT_REGISTER_NAMES[rs1]).put(',')
+                    .put(FLOAT_REGISTER_NAMES[rs2]);
+            case FR_RM -> {
+                out.put(FLOAT_REGISTER_NAMES[rd]).put(',')
+                        .put(FLOAT_REGISTER_NAMES[rs1]).put(',')
+                        .put(FLOAT_REGISTER_NAMES[rs2]);
+                appendRoundingMode(out, rm);
+            }
+            case F1_RM -> {
+                out.put(FLOAT_REGISTER_NAMES[rd]).put(',')
+                        .put(FLOAT_REGISTER_NAMES[rs1]);
+                appendRoundingMode(out, rm);
+            }
+            case F_TO_X -> out.put(REGISTER_NAMES[rd]).put(',')
+                    .put(FLOAT_REGISTER_NAMES[rs1]);
+            case F_TO_X_RM -> {
+                out.put(REGISTER_NAMES[rd]).put(',')
+                        .put(FLOAT_REGISTER_NAMES[rs1]);
+                appendRoundingMode(out, rm);
+            }
+            case X_TO_F -> out.put(FLOAT_REGISTER_NAMES[rd]).put(',')
+                    .put(REGISTER_NAMES[rs1]);
+            case X_TO_F_RM -> {
+                out.put(FLOAT_REGISTER_NAMES[rd]).put(',')
+                        .put(REGISTER_NAMES[rs1]);
+                appendRoundingMode(out, rm);
+            }
+            case FCMP -> out.put(REGISTER_NAMES[rd]).put(',')
+                    .put(FLOAT_REGISTER_NAMES[rs1]).put(',')
+                    .put(FLOAT_REGISTER_NAMES[rs2]);
+            case NONE -> {
+            }
+        }
+    }
+
+    public static void appendJump(AsciiWriter out, long address, int command, int length, String name,
+                                  long target, LabelTable labels) {
+        appendPrefix(out, address, command, length, name, "");
+        appendTarget(out, target, labels);
+    }
+
+    private static void appendPrefix(AsciiWriter out, long address, int command, int length, String name,
+                                     String suffix) {
+        out.putSpaces(4).putHex(address, 5).put(":   ")
+                .putSpaces(8 - length * 2).putHex(command & 0xffffffffL, length * 2).putSpaces(6)
+                .putSpaces(5 - name.length() - suffix.length()).put(name).put(suffix)
+                .put(' ');
+    }
+
+    private static boolean appendAlias(AsciiWriter out, long address, int command, int length, long instruction,
+                                       long target, LabelTable labels) {
+        int rd = DecodedInstruction.getRd(instruction);
+        int rs1 = DecodedInstruction.getRs1(instruction);
+        int rs2 = DecodedInstruction.getRs2(instruction);
+        int immediate = DecodedInstruction.getImmediate(instruction);
+        String alias = getAlias(DecodedInstruction.getMnemonic(instruction), length, rd, rs1, rs2, immediate);
+        if (alias == null) {
+            return false;
+        }
+        appendPrefix(out, address, command, length, alias, "");
+        switch (alias) {
+            case "nop", "ret" -> {
+            }
+            case "li" -> out.put(REGISTER_NAMES[rd]).put(',').putDecimal(immediate);
+            case "mv" -> out.put(REGISTER_NAMES[rd]).put(',').put(REGISTER_NAMES[rs1 == 0 ? rs2 : rs1]);
+            case "sext.w", "not", "seqz", "sltz" -> out.put(REGISTER_NAMES[rd]).put(',')
+                    .put(REGISTER_NAMES[rs1]);
+            case "neg", "negw", "snez", "sgtz" -> out.put(REGISTER_NAMES[rd]).put(',')
+                    .put(REGISTER_NAMES[rs2]);
+            case "beqz", "bnez", "bgez", "bltz" -> {
+                out.put(REGISTER_NAMES[rs1]).put(',');
+                appendTarget(out, target, labels);
+            }
+            case "blez", "bgtz" -> {
+                out.put(REGISTER_NAMES[rs2]).put(',');
+                appendTarget(out, target, labels);
+            }
+            case "j", "jal" -> appendTarget(out, target, labels);
+            case "jr", "jalr" -> out.put(REGISTER_NAMES[rs1]);
+            case "csrr" -> out.put(REGISTER_NAMES[rd]).put(',').put(getCsrName(immediate));
+            case "csrw", "csrs", "csrc" -> out.put(getCsrName(immediate)).put(',').put(REGISTER_NAMES[rs1]);
+            case "csrwi", "csrsi", "csrci" -> out.put(getCsrName(immediate)).put(',').putDecimal(rs1);
+            case "fmv.s", "fneg.s", "fabs.s", "fmv.d", "fneg.d", "fabs.d" -> out.put(FLOAT_REGISTER_NAMES[rd])
+                    .put(',').put(FLOAT_REGISTER_NAMES[rs1]);
+            default -> throw new AssertionError(alias);
+        }
+        return true;
+    }
+
+    static String getAlias(long instruction, int length) {
+        return getAlias(DecodedInstruction.getMnemonic(instruction), length, DecodedInstruction.getRd(instruction),
+                DecodedInstruction.getRs1(instruction), DecodedInstruction.getRs2(instruction),
+                DecodedInstruction.getImmediate(instruction));
+    }
+
+    static Mnemonic[] getAliasMnemonics(String alias) {
+        return switch (alias) {
+            case "nop", "li" -> new Mnemonic[] {Mnemonic.ADDI};
+            case "mv" -> new Mnemonic[] {Mnemonic.ADDI, Mnemonic.ADD};
+            case "sext.w" -> new Mnemonic[] {Mnemonic.ADDIW};
+            case "not" -> new Mnemonic[] {Mnemonic.XORI};
+            case "neg" -> new Mnemonic[] {Mnemonic.SUB};
+            case "negw" -> new Mnemonic[] {Mnemonic.SUBW};
+            case "seqz" -> new Mnemonic[] {Mnemonic.SLTIU};
+            case "snez" -> new Mnemonic[] {Mnemonic.SLTU};
+            case "sltz", "sgtz" -> new Mnemonic[] {Mnemonic.SLT};
+            case "beqz" -> new Mnemonic[] {Mnemonic.BEQ};
+            case "bnez" -> new Mnemonic[] {Mnemonic.BNE};
+            case "bgez", "blez" -> new Mnemonic[] {Mnemonic.BGE};
+            case "bltz", "bgtz" -> new Mnemonic[] {Mnemonic.BLT};
+            case "j" -> new Mnemonic[] {Mnemonic.JAL};
+            case "ret", "jr", "call", "tail" -> new Mnemonic[] {Mnemonic.JALR};
+            case "csrr", "csrs" -> new Mnemonic[] {Mnemonic.CSRRS};
+            case "csrw" -> new Mnemonic[] {Mnemonic.CSRRW};
+            case "csrc" -> new Mnemonic[] {Mnemonic.CSRRC};
+            case "csrwi" -> new Mnemonic[] {Mnemonic.CSRRWI};
+            case "csrsi" -> new Mnemonic[] {Mnemonic.CSRRSI};
+            case "csrci" -> new Mnemonic[] {Mnemonic.CSRRCI};
+            case "fmv.s" -> new Mnemonic[] {Mnemonic.FSGNJ_S};
+            case "fneg.s" -> new Mnemonic[] {Mnemonic.FSGNJN_S};
+            case "fabs.s" -> new Mnemonic[] {Mnemonic.FSGNJX_S};
+            case "fmv.d" -> new Mnemonic[] {Mnemonic.FSGNJ_D};
+            case "fneg.d" -> new Mnemonic[] {Mnemonic.FSGNJN_D};
+            case "fabs.d" -> new Mnemonic[] {Mnemonic.FSGNJX_D};
+            default -> new Mnemonic[0];
+        };
+    }
+
+    private static String getAlias(Mnemonic mnemonic, int length, int rd, int rs1, int rs2, int immediate) {
+        return switch (mnemonic) {
+            case ADDI -> rd == 0 && rs1 == 0 && immediate == 0 ? "nop"
+                    : rs1 == 0 ? "li" : immediate == 0 ? "mv" : null;
+            case ADD -> rs1 == 0 && length == 2 ? "mv" : null;
+            case ADDIW -> immediate == 0 ? "sext.w" : null;
+            case XORI -> immediate == -1 ? "not" : null;
+            case SUB -> rs1 == 0 ? "neg" : null;
+            case SUBW -> rs1 == 0 ? "negw" : null;
+            case SLTIU -> immediate == 1 ? "seqz" : null;
+            case SLTU -> rs1 == 0 ? "snez" : null;
+            case SLT -> rs2 == 0 ? "sltz" : rs1 == 0 ? "sgtz" : null;
+            case BEQ -> rs2 == 0 ? "beqz" : null;
+            case BNE -> rs2 == 0 ? "bnez" : null;
+            case BGE -> rs2 == 0 ? "bgez" : rs1 == 0 ? "blez" : null;
+            case BLT -> rs2 == 0 ? "bltz" : rs1 == 0 ? "bgtz" : null;
+            case JAL -> rd == 0 ? "j" : rd == 1 ? "jal" : null;
+            case JALR -> immediate != 0 ? null
+                    : rd == 0 && rs1 == 1 ? "ret" : rd == 0 ? "jr" : rd == 1 ? "jalr" : null;
+            case CSRRS -> rs1 == 0 ? "csrr" : rd == 0 ? "csrs" : null;
+            case CSRRW -> rd == 0 ? "csrw" : null;
+            case CSRRC -> rd == 0 ? "csrc" : null;
+            case CSRRWI -> rd == 0 ? "csrwi" : null;
+            case CSRRSI -> rd == 0 ? "csrsi" : null;
+            case CSRRCI -> rd == 0 ? "csrci" : null;
+            case FSGNJ_S -> rs1 == rs2 ? "fmv.s" : null;
+            case FSGNJN_S -> rs1 == rs2 ? "fneg.s" : null;
+            case FSGNJX_S -> rs1 == rs2 ? "fabs.s" : null;
+            case FSGNJ_D -> rs1 == rs2 ? "fmv.d" : null;
+            case FSGNJN_D -> rs1 == rs2 ? "fneg.d" : null;
+            case FSGNJX_D -> rs1 == rs2 ? "fabs.d" : null;
+            default -> null;
+        };
+    }
+
+    private static void appendRoundingMode(AsciiWriter out, int rm) {
+        if (rm != DYNAMIC_ROUNDING) {
+            out.put(',').put(ROUNDING_MODES[rm]);
+        }
+    }
+
+    private static void appendTarget(AsciiWriter out, long target, LabelTable labels) {
+        out.put("0x").putHex(target, 1);
+        labels.appendReference(out, target);
+    }
+}
@@ -0,0 +1,327 @@
+package disasm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class InstructionSearch {
+    private static final int RD = 0;
+    private static final int RS1 = 1;
+    private static final int RS2 = 2;
+    private static final int RS3 = 3;
+    private static final int RM = 4;
+    private static final int IMMEDIATE = 5;
+    private static final int CSR = 6;
+    private static final int TARGET = 7;
+    private static final String[] FIELDS = {"rd", "rs1", "rs2", "rs3", "rm", "imm", "csr", "target"};
+    private static final String[] OPERATORS = {"!=", "=", "<", ">"};
+    private static final long NOT_APPLICABLE = Long.MIN_VALUE;
+    private final Disassembly disassembly;
+    private final int[] sectionStarts;
+    private final int[] offsets;
+    private final int[] postings;
+
+    public InstructionSearch(Disassembly disassembly) {
+        long start = Metrics.start();
+        long allocation = Metrics.startAllocation();
+        this.disassembly = disassembly;
+        sectionStarts = new int[disassembly.getSectionCount() + 1];
+        offsets = new int[Mnemonic.values().length + 1];
+        for (int s = 0; s < disassembly.getSectionCount(); s++) {
+            SectionDisassembly section = disassembly.getSection(s);
+            sectionStarts[s + 1] = sectionStarts[s] + section.getCount();
+            for (int i = 0; i < section.getCount(); i++) {
+                offsets[DecodedInstruction.getId(section.getInstruction(i)) + 1]++;
+            }
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        postings = new int[sectionStarts[sectionStarts.length - 1]];
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int s = 0; s < disassembly.getSectionCount(); s++) {
+            SectionDisassembly section = disassembly.getSection(s);
+            for (int i = 0; i < section.getCount(); i++) {
+                postings[next[DecodedInstruction.getId(section.getInstruction(i))]++] = sectionStarts[s] + i;
+            }
+        }
+        Metrics.end(Metrics.Phase.SEARCH_INDEX, start, allocation);
+    }
+
+    public int getCount(Mnemonic mnemonic) {
+        return offsets[mnemonic.ordinal() + 1] - offsets[mnemonic.ordinal()];
+    }
+
+    public int getSection(int position) {
+        int section = 0;
+        while (sectionStarts[section + 1] <= position) {
+            section++;
+        }
+        return section;
+    }
+
+    public int getIndex(int position) {
+        return position - sectionStarts[getSection(position)];
+    }
+
+    public int[] find(String query) {
+        Query compiled = new Query(query);
+        int[] result = new int[16];
+        int count = 0;
+        for (int id = 0; id < compiled.mnemonics.length; id++) {
+            if (!compiled.mnemonics[id]) {
+                continue;
+            }
+            int section = 0;
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                int position = postings[i];
+                while (sectionStarts[section + 1] <= position) {
+                    section++;
+                }
+                if (compiled.matches(disassembly.getSection(section), position - sectionStarts[section])) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, count * 2);
+                    }
+                    result[count++] = position;
+                }
+            }
+        }
+        result = Arrays.copyOf(result, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    public void write(AsciiWriter out, int[] positions) {
+        LabelTable labels = disassembly.getLabels();
+        for (int position : positions) {
+            int section = getSection(position);
+            disassembly.getSection(section).appendInstruction(out, position - sectionStarts[section], labels);
+        }
+    }
+
+    private class Query {
+        private final boolean[] mnemonics = new boolean[Mnemonic.values().length];
+        private final boolean[] canonical = new boolean[Mnemonic.values().length];
+        private final Set<String> aliases = new HashSet<>();
+        private final List<Condition> conditions = new ArrayList<>();
+        private int mask = 0;
+        private int match = 0;
+        private int length = 0;
+
+        private Query(String query) {
+            boolean anyMnemonic = true;
+            for (String term : query.trim().split("[\\s,]+")) {
+                if (term.isEmpty()) {
+                    continue;
+                }
+                if (term.startsWith("bytes=")) {
+                    parseBytes(term.substring("bytes=".length()));
+                } else if (term.startsWith("mask=")) {
+                    int separator = term.indexOf('/');
+                    if (separator < 0) {
+                        throw new UnsupportedOperationException("Expected mask=<mask>/<match>: " + term);
+                    }
+                    mask = Integer.parseUnsignedInt(stripHex(term.substring("mask=".length(), separator)), 16);
+                    match = Integer.parseUnsignedInt(stripHex(term.substring(separator + 1)), 16) & mask;
+                } else if (!parseCondition(term)) {
+                    for (String name : term.split("\\|")) {
+                        parseMnemonic(name);
+                    }
+                    anyMnemonic = false;
+                }
+            }
+            if (anyMnemonic) {
+                Arrays.fill(mnemonics, true);
+                Arrays.fill(canonical, true);
+                if (length == 4) {
+                    filterByEncoding();
+                }
+            }
+        }
+
+        private void parseBytes(String pattern) {
+            if (pattern.length() != 4 && pattern.length() != 8) {
+                throw new UnsupportedOperationException("Expected 2 or 4 bytes: " + pattern);
+            }
+            length = pattern.length() / 2;
+            mask = 0;
+            match = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int shift = (i / 2) * 8 + (i % 2 == 0 ? 4 : 0);
+                char c = pattern.charAt(i);
+                if (c != '?') {
+                    mask |= 0xf << shift;
+                    match |= Character.digit(c, 16) << shift;
+                }
+            }
+        }
+
+        private void filterByEncoding() {
+            Arrays.fill(mnemonics, false);
+            mnemonics[Mnemonic.UNKNOWN.ordinal()] = true;
+            for (InstructionTable.Entry entry : InstructionTable.getEntries(disassembly.getParser().getXlen())) {
+                if (((entry.getMatch() ^ match) & entry.getMask() & mask) == 0) {
+                    mnemonics[entry.getMnemonic().ordinal()] = true;
+                }
+            }
+        }
+
+        private void parseMnemonic(String name) {
+            for (Mnemonic mnemonic : Mnemonic.values()) {
+                if (mnemonic.getText().equals(name)) {
+                    mnemonics[mnemonic.ordinal()] = true;
+                    canonical[mnemonic.ordinal()] = true;
+                    return;
+                }
+            }
+            Mnemonic[] bases = InstructionPrinter.getAliasMnemonics(name);
+            if (bases.length == 0) {
+                throw new UnsupportedOperationException("Unsupported mnemonic: " + name);
+            }
+            for (Mnemonic mnemonic : bases) {
+                mnemonics[mnemonic.ordinal()] = true;
+            }
+            aliases.add(name);
+        }
+
+        private boolean parseCondition(String term) {
+            for (int operator = 0; operator < OPERATORS.length; operator++) {
+                int separator = term.indexOf(OPERATORS[operator]);
+                if (separator <= 0) {
+                    continue;
+                }
+                String field = term.substring(0, separator);
+                String value = term.substring(separator + OPERATORS[operator].length());
+                for (int f = 0; f < FIELDS.length; f++) {
+                    if (FIELDS[f].equals(field)) {
+                        conditions.add(new Condition(f, operator, parseValue(f, value)));
+                        return true;
+                    }
+                }
+                throw new UnsupportedOperationException("Unsupported field: " + field);
+            }
+            return false;
+        }
+
+        private long parseValue(int field, String value) {
+            switch (field) {
+                case RD, RS1, RS2, RS3 -> {
+                    for (int reg = 0; reg < 32; reg++) {
+                        if (value.equals(InstructionPrinter.getRegisterName(reg))
+                                || value.equals(InstructionPrinter.getFloatRegisterName(reg))
+                                || value.equals("x" + reg) || value.equals("f" + reg)) {
+                            return reg;
+                        }
+                    }
+                    throw new UnsupportedOperationException("Unsupported register: " + value);
+                }
+                case CSR -> {
+                    for (int csr = 0; csr < 1 << 12; csr++) {
+                        if (value.equals(InstructionPrinter.getCsrName(csr))) {
+                            return csr;
+                        }
+                    }
+                }
+                case TARGET -> {
+                    SymbolTable symbols = disassembly.getParser().getSymbolTable();
+                    SymbolIndex index = symbols.getAddressIndex();
+                    for (int i = 0; i < index.size(); i++) {
+                        if (value.equals(symbols.getSymbolName(index.getSymbol(i)))) {
+                            return index.getAddress(i);
+                        }
+                    }
+                    return Long.parseUnsignedLong(stripHex(value), 16);
+                }
+                default -> {
+                }
+            }
+            return Long.decode(value);
+        }
+
+        private boolean matches(SectionDisassembly section, int number) {
+            if (!canonical[DecodedInstruction.getId(section.getInstruction(number))]
+                    && !aliases.contains(section.getAlias(number))) {
+                return false;
+            }
+            if (mask != 0 || length != 0) {
+                if ((length != 0 && section.getLength(number) != length)
+                        || (section.getCommand(number) & mask) != match) {
+                    return false;
+                }
+            }
+            for (Condition condition : conditions) {
+                long actual = getField(section, number, condition.field);
+                if (actual == NOT_APPLICABLE) {
+                    return false;
+                }
+                boolean result = switch (condition.operator) {
+                    case 0 -> actual != condition.value;
+                    case 1 -> actual == condition.value;
+                    case 2 -> actual < condition.value;
+                    default -> actual > condition.value;
+                };
+                if (!result) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static long getField(SectionDisassembly section, int number, int field) {
+        long instruction = section.getInstruction(number);
+        InstructionFormat format = DecodedInstruction.getMnemonic(instruction).getFormat();
+        return switch (field) {
+            case RD -> switch (format) {
+                case STORE, BRANCH, FSTORE, NONE -> NOT_APPLICABLE;
+                default -> DecodedInstruction.getRd(instruction);
+            };
+            case RS1 -> switch (format) {
+                case U, JAL, CSRI, NONE -> NOT_APPLICABLE;
+                default -> DecodedInstruction.getRs1(instruction);
+            };
+            case RS2 -> switch (format) {
+                case R, STORE, BRANCH, AMO, FSTORE, R4, FR, FR_RM, FCMP -> DecodedInstruction.getRs2(instruction);
+                default -> NOT_APPLICABLE;
+            };
+            case RS3 -> format == InstructionFormat.R4 ? DecodedInstruction.getRs3(instruction) : NOT_APPLICABLE;
+            case RM -> switch (format) {
+                case LR, AMO, R4, FR_RM, F1_RM, F_TO_X_RM, X_TO_F_RM -> DecodedInstruction.getRm(instruction);
+                default -> NOT_APPLICABLE;
+            };
+            case IMMEDIATE -> switch (format) {
+                case I, SHIFT, LOAD, JALR, STORE, BRANCH, U, JAL, FLOAD, FSTORE ->
+                        DecodedInstruction.getImmediate(instruction);
+                case CSRI -> DecodedInstruction.getRs1(instruction);
+                default -> NOT_APPLICABLE;
+            };
+            case CSR -> format == InstructionFormat.CSR || format == InstructionFormat.CSRI
+                    ? DecodedInstruction.getImmediate(instruction) & 0xfff : NOT_APPLICABLE;
+            case TARGET -> {
+                if (format == InstructionFormat.BRANCH || format == InstructionFormat.JAL) {
+                    yield section.getTarget(number);
+                }
+                yield section.hasMaterializedAddress(number) ? section.getMaterializedAddress(number) : NOT_APPLICABLE;
+            }
+            default -> throw new AssertionError(field);
+        };
+    }
+
+    private static final class Condition {
+        private final int field;
+        private final int operator;
+        private final long value;
+
+        private Condition(int field, int operator, long value) {
+            this.field = field;
+            this.operator = operator;
+            this.value = value;
+        }
+    }
+
+    private static String stripHex(String value) {
+        return value.startsWith("0x") ? value.substring(2) : value;
+    }
+}
@@ -0,0 +1,241 @@
+package disasm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class InstructionTable {
+    public static final int RV32 = 1;
+    public static final int RV64 = 2;
+    public static final int ANY = RV32 | RV64;
+    private static final Entry[] ENTRIES = {
+            entry(ANY, "-------------------- ----- 0110111", Mnemonic.LUI),
+            entry(ANY, "-------------------- ----- 0010111", Mnemonic.AUIPC),
+            entry(ANY, "-------------------- ----- 1101111", Mnemonic.JAL),
+            entry(ANY, "------------ ----- 000 ----- 1100111", Mnemonic.JALR),
+            entry(ANY, "------------ ----- 000 ----- 1100011", Mnemonic.BEQ),
+            entry(ANY, "------------ ----- 001 ----- 1100011", Mnemonic.BNE),
+            entry(ANY, "------------ ----- 100 ----- 1100011", Mnemonic.BLT),
+            entry(ANY, "------------ ----- 101 ----- 1100011", Mnemonic.BGE),
+            entry(ANY, "------------ ----- 110 ----- 1100011", Mnemonic.BLTU),
+            entry(ANY, "------------ ----- 111 ----- 1100011", Mnemonic.BGEU),
+            entry(ANY, "------------ ----- 000 ----- 0000011", Mnemonic.LB),
+            entry(ANY, "------------ ----- 001 ----- 0000011", Mnemonic.LH),
+            entry(ANY, "------------ ----- 010 ----- 0000011", Mnemonic.LW),
+            entry(ANY, "------------ ----- 100 ----- 0000011", Mnemonic.LBU),
+            entry(ANY, "------------ ----- 101 ----- 0000011", Mnemonic.LHU),
+            entry(ANY, "------------ ----- 000 ----- 0100011", Mnemonic.SB),
+            entry(ANY, "------------ ----- 001 ----- 0100011", Mnemonic.SH),
+            entry(ANY, "------------ ----- 010 ----- 0100011", Mnemonic.SW),
+            entry(ANY, "------------ ----- 000 ----- 0010011", Mnemonic.ADDI),
+            entry(ANY, "------------ ----- 010 ----- 0010011", Mnemonic.SLTI),
+            entry(ANY, "------------ ----- 011 ----- 0010011", Mnemonic.SLTIU),
+            entry(ANY, "------------ ----- 100 ----- 0010011", Mnemonic.XORI),
+            entry(ANY, "------------ ----- 110 ----- 0010011", Mnemonic.ORI),
+            entry(ANY, "------------ ----- 111 ----- 0010011", Mnemonic.ANDI),
+            entry(RV32, "0000000 ----- ----- 001 ----- 0010011", Mnemonic.SLLI),
+            entry(RV32, "0000000 ----- ----- 101 ----- 0010011", Mnemonic.SRLI),
+            entry(RV32, "0100000 ----- ----- 101 ----- 0010011", Mnemonic.SRAI),
+            entry(RV64, "000000 ------ ----- 001 ----- 0010011", Mnemonic.SLLI),
+            entry(RV64, "000000 ------ ----- 101 ----- 0010011", Mnemonic.SRLI),
+            entry(RV64, "010000 ------ ----- 101 ----- 0010011", Mnemonic.SRAI),
+            entry(ANY, "0000000 ----- ----- 000 ----- 0110011", Mnemonic.ADD),
+            entry(ANY, "0100000 ----- ----- 000 ----- 0110011", Mnemonic.SUB),
+            entry(ANY, "0000000 ----- ----- 001 ----- 0110011", Mnemonic.SLL),
+            entry(ANY, "0000000 ----- ----- 010 ----- 0110011", Mnemonic.SLT),
+            entry(ANY, "0000000 ----- ----- 011 ----- 0110011", Mnemonic.SLTU),
+            entry(ANY, "0000000 ----- ----- 100 ----- 0110011", Mnemonic.XOR),
+            entry(ANY, "0000000 ----- ----- 101 ----- 0110011", Mnemonic.SRL),
+            entry(ANY, "0100000 ----- ----- 101 ----- 0110011", Mnemonic.SRA),
+            entry(ANY, "0000000 ----- ----- 110 ----- 0110011", Mnemonic.OR),
+            entry(ANY, "0000000 ----- ----- 111 ----- 0110011", Mnemonic.AND),
+            entry(ANY, "------------ ----- 000 ----- 0001111", Mnemonic.FENCE),
+            entry(ANY, "------------ ----- 001 ----- 0001111", Mnemonic.FENCE_I),
+            entry(ANY, "000000000000 00000 000 00000 1110011", Mnemonic.ECALL),
+            entry(ANY, "000000000001 00000 000 00000 1110011", Mnemonic.EBREAK),
+            entry(ANY, "000100000010 00000 000 00000 1110011", Mnemonic.SRET),
+            entry(ANY, "001100000010 00000 000 00000 1110011", Mnemonic.MRET),
+            entry(ANY, "000100000101 00000 000 00000 1110011", Mnemonic.WFI),
+            entry(ANY, "------------ ----- 001 ----- 1110011", Mnemonic.CSRRW),
+            entry(ANY, "------------ ----- 010 ----- 1110011", Mnemonic.CSRRS),
+            entry(ANY, "------------ ----- 011 ----- 1110011", Mnemonic.CSRRC),
+            entry(ANY, "------------ ----- 101 ----- 1110011", Mnemonic.CSRRWI),
+            entry(ANY, "------------ ----- 110 ----- 1110011", Mnemonic.CSRRSI),
+            entry(ANY, "------------ ----- 111 ----- 1110011", Mnemonic.CSRRCI),
+
+            entry(ANY, "0000001 ----- ----- 000 ----- 0110011", Mnemonic.MUL),
+            entry(ANY, "0000001 ----- ----- 001 ----- 0110011", Mnemonic.MULH),
+            entry(ANY, "0000001 ----- ----- 010 ----- 0110011", Mnemonic.MULHSU),
+            entry(ANY, "0000001 ----- ----- 011 ----- 0110011", Mnemonic.MULHU),
+            entry(ANY, "0000001 ----- ----- 100 ----- 0110011", Mnemonic.DIV),
+            entry(ANY, "0000001 ----- ----- 101 ----- 0110011", Mnemonic.DIVU),
+            entry(ANY, "0000001 ----- ----- 110 ----- 0110011", Mnemonic.REM),
+            entry(ANY, "0000001 ----- ----- 111 ----- 0110011", Mnemonic.REMU),
+
+            entry(RV64, "------------ ----- 011 ----- 0000011", Mnemonic.LD),
+            entry(RV64, "------------ ----- 110 ----- 0000011", Mnemonic.LWU),
+            entry(RV64, "------------ ----- 011 ----- 0100011", Mnemonic.SD),
+            entry(RV64, "------------ ----- 000 ----- 0011011", Mnemonic.ADDIW),
+            entry(RV64, "0000000 ----- ----- 001 ----- 0011011", Mnemonic.SLLIW),
+            entry(RV64, "0000000 ----- ----- 101 ----- 0011011", Mnemonic.SRLIW),
+            entry(RV64, "0100000 ----- ----- 101 ----- 0011011", Mnemonic.SRAIW),
+            entry(RV64, "0000000 ----- ----- 000 ----- 0111011", Mnemonic.ADDW),
+            entry(RV64, "0100000 ----- ----- 000 ----- 0111011", Mnemonic.SUBW),
+            entry(RV64, "0000000 ----- ----- 001 ----- 0111011", Mnemonic.SLLW),
+            entry(RV64, "0000000 ----- ----- 101 ----- 0111011", Mnemonic.SRLW),
+            entry(RV64, "0100000 ----- ----- 101 ----- 0111011", Mnemonic.SRAW),
+            entry(RV64, "0000001 ----- ----- 000 ----- 0111011", Mnemonic.MULW),
+            entry(RV64, "0000001 ----- ----- 100 ----- 0111011", Mnemonic.DIVW),
+            entry(RV64, "0000001 ----- ----- 101 ----- 0111011", Mnemonic.DIVUW),
+            entry(RV64, "0000001 ----- ----- 110 ----- 0111011", Mnemonic.REMW),
+            entry(RV64, "0000001 ----- ----- 111 ----- 0111011", Mnemonic.REMUW),
+
+            entry(ANY, "00010 -- 00000 ----- 010 ----- 0101111", Mnemonic.LR_W),
+            entry(ANY, "00011 -- ----- ----- 010 ----- 0101111", Mnemonic.SC_W),
+            entry(ANY, "00001 -- ----- ----- 010 ----- 0101111", Mnemonic.AMOSWAP_W),
+            entry(ANY, "00000 -- ----- ----- 010 ----- 0101111", Mnemonic.AMOADD_W),
+            entry(ANY, "00100 -- ----- ----- 010 ----- 0101111", Mnemonic.AMOXOR_W),
+            entry(ANY, "01100 -- ----- ----- 010 ----- 0101111", Mnemonic.AMOAND_W),
+            entry(ANY, "01000 -- ----- ----- 010 ----- 0101111", Mnemonic.AMOOR_W),
+            entry(ANY, "10000 -- ----- ----- 010 ----- 0101111", Mnemonic.AMOMIN_W),
+            entry(ANY, "10100 -- ----- ----- 010 ----- 0101111", Mnemonic.AMOMAX_W),
+            entry(ANY, "11000 -- ----- ----- 010 ----- 0101111", Mnemonic.AMOMINU_W),
+            entry(ANY, "11100 -- ----- ----- 010 ----- 0101111", Mnemonic.AMOMAXU_W),
+
+            entry(RV64, "00010 -- 00000 ----- 011 ----- 0101111", Mnemonic.LR_D),
+            entry(RV64, "00011 -- ----- ----- 011 ----- 0101111", Mnemonic.SC_D),
+            entry(RV64, "00001 -- ----- ----- 011 ----- 0101111", Mnemonic.AMOSWAP_D),
+            entry(RV64, "00000 -- ----- ----- 011 ----- 0101111", Mnemonic.AMOADD_D),
+            entry(RV64, "00100 -- ----- ----- 011 ----- 0101111", Mnemonic.AMOXOR_D),
+            entry(RV64, "01100 -- ----- ----- 011 ----- 0101111", Mnemonic.AMOAND_D),
+            entry(RV64, "01000 -- ----- ----- 011 ----- 0101111", Mnemonic.AMOOR_D),
+            entry(RV64, "10000 -- ----- ----- 011 ----- 0101111", Mnemonic.AMOMIN_D),
+            entry(RV64, "10100 -- ----- ----- 011 ----- 0101111", Mnemonic.AMOMAX_D),
+            entry(RV64, "11000 -- ----- ----- 011 ----- 0101111", Mnemonic.AMOMINU_D),
+            entry(RV64, "11100 -- ----- ----- 011 ----- 0101111", Mnemonic.AMOMAXU_D),
+
+            entry(ANY, "------------ ----- 010 ----- 0000111", Mnemonic.FLW),
+            entry(ANY, "------------ ----- 010 ----- 0100111", Mnemonic.FSW),
+            entry(ANY, "----- 00 ----- ----- --- ----- 1000011", Mnemonic.FMADD_S),
+            entry(ANY, "----- 00 ----- ----- --- ----- 1000111", Mnemonic.FMSUB_S),
+            entry(ANY, "----- 00 ----- ----- --- ----- 1001011", Mnemonic.FNMSUB_S),
+            entry(ANY, "----- 00 ----- ----- --- ----- 1001111", Mnemonic.FNMADD_S),
+            entry(ANY, "0000000 ----- ----- --- ----- 1010011", Mnemonic.FADD_S),
+            entry(ANY, "0000100 ----- ----- --- ----- 1010011", Mnemonic.FSUB_S),
+            entry(ANY, "0001000 ----- ----- --- ----- 1010011", Mnemonic.FMUL_S),
+            entry(ANY, "0001100 ----- ----- --- ----- 1010011", Mnemonic.FDIV_S),
+            entry(ANY, "0101100 00000 ----- --- ----- 1010011", Mnemonic.FSQRT_S),
+            entry(ANY, "0010000 ----- ----- 000 ----- 1010011", Mnemonic.FSGNJ_S),
+            entry(ANY, "0010000 ----- ----- 001 ----- 1010011", Mnemonic.FSGNJN_S),
+            entry(ANY, "0010000 ----- ----- 010 ----- 1010011", Mnemonic.FSGNJX_S),
+            entry(ANY, "0010100 ----- ----- 000 ----- 1010011", Mnemonic.FMIN_S),
+            entry(ANY, "0010100 ----- ----- 001 ----- 1010011", Mnemonic.FMAX_S),
+            entry(ANY, "1100000 00000 ----- --- ----- 1010011", Mnemonic.FCVT_W_S),
+            entry(ANY, "1100000 00001 ----- --- ----- 1010011", Mnemonic.FCVT_WU_S),
+            entry(RV64, "1100000 00010 ----- --- ----- 1010011", Mnemonic.FCVT_L_S),
+            entry(RV64, "1100000 00011 ----- --- ----- 1010011", Mnemonic.FCVT_LU_S),
+            entry(ANY, "1101000 00000 ----- --- ----- 1010011", Mnemonic.FCVT_S_W),
+            entry(ANY, "1101000 00001 ----- --- ----- 1010011", Mnemonic.FCVT_S_WU),
+            entry(RV64, "1101000 00010 ----- --- ----- 1010011", Mnemonic.FCVT_S_L),
+            entry(RV64, "1101000 00011 ----- --- ----- 1010011", Mnemonic.FCVT_S_LU),
+            entry(ANY, "1010000 ----- ----- 010 ----- 1010011", Mnemonic.FEQ_S),
+            entry(ANY, "1010000 ----- ----- 001 ----- 1010011", Mnemonic.FLT_S),
+            entry(ANY, "1010000 ----- ----- 000 ----- 1010011", Mnemonic.FLE_S),
+            entry(ANY, "1110000 00000 ----- 001 ----- 1010011", Mnemonic.FCLASS_S),
+            entry(ANY, "1110000 00000 ----- 000 ----- 1010011", Mnemonic.FMV_X_W),
+            entry(ANY, "1111000 00000 ----- 000 ----- 1010011", Mnemonic.FMV_W_X),
+
+            entry(ANY, "------------ ----- 011 ----- 0000111", Mnemonic.FLD),
+            entry(ANY, "------------ ----- 011 ----- 0100111", Mnemonic.FSD),
+            entry(ANY, "----- 01 ----- ----- --- ----- 1000011", Mnemonic.FMADD_D),
+            entry(ANY, "----- 01 ----- ----- --- ----- 1000111", Mnemonic.FMSUB_D),
+            entry(ANY, "----- 01 ----- ----- --- ----- 1001011", Mnemonic.FNMSUB_D),
+            entry(ANY, "----- 01 ----- ----- --- ----- 1001111", Mnemonic.FNMADD_D),
+            entry(ANY, "0000001 ----- ----- --- ----- 1010011", Mnemonic.FADD_D),
+            entry(ANY, "0000101 ----- ----- --- ----- 1010011", Mnemonic.FSUB_D),
+            entry(ANY, "0001001 ----- ----- --- ----- 1010011", Mnemonic.FMUL_D),
+            entry(ANY, "0001101 ----- ----- --- ----- 1010011", Mnemonic.FDIV_D),
+            entry(ANY, "0101101 00000 ----- --- ----- 1010011", Mnemonic.FSQRT_D),
+            entry(ANY, "0010001 ----- ----- 000 ----- 1010011", Mnemonic.FSGNJ_D),
+            entry(ANY, "0010001 ----- ----- 001 ----- 1010011", Mnemonic.FSGNJN_D),
+            entry(ANY, "0010001 ----- ----- 010 ----- 1010011", Mnemonic.FSGNJX_D),
+            entry(ANY, "0010101 ----- ----- 000 ----- 1010011", Mnemonic.FMIN_D),
+            entry(ANY, "0010101 ----- ----- 001 ----- 1010011", Mnemonic.FMAX_D),
+            entry(ANY, "1100001 00000 ----- --- ----- 1010011", Mnemonic.FCVT_W_D),
+            entry(ANY, "1100001 00001 ----- --- ----- 1010011", Mnemonic.FCVT_WU_D),
+            entry(RV64, "1100001 00010 ----- --- ----- 1010011", Mnemonic.FCVT_L_D),
+            entry(RV64, "1100001 00011 ----- --- ----- 1010011", Mnemonic.FCVT_LU_D),
+            entry(ANY, "1101001 00000 ----- --- ----- 1010011", Mnemonic.FCVT_D_W),
+            entry(ANY, "1101001 00001 ----- --- ----- 1010011", Mnemonic.FCVT_D_WU),
+            entry(RV64, "1101001 00010 ----- --- ----- 1010011", Mnemonic.FCVT_D_L),
+            entry(RV64, "1101001 00011 ----- --- ----- 1010011", Mnemonic.FCVT_D_LU),
+            entry(ANY, "1010001 ----- ----- 010 ----- 1010011", Mnemonic.FEQ_D),
+            entry(ANY, "1010001 ----- ----- 001 ----- 1010011", Mnemonic.FLT_D),
+            entry(ANY, "1010001 ----- ----- 000 ----- 1010011", Mnemonic.FLE_D),
+            entry(ANY, "1110001 00000 ----- 001 ----- 1010011", Mnemonic.FCLASS_D),
+            entry(RV64, "1110001 00000 ----- 000 ----- 1010011", Mnemonic.FMV_X_D),
+            entry(RV64, "1111001 00000 ----- 000 ----- 1010011", Mnemonic.FMV_D_X),
+            entry(ANY, "0100000 00001 ----- --- ----- 1010011", Mnemonic.FCVT_S_D),
+            entry(ANY, "0100001 00000 ----- --- ----- 1010011", Mnemonic.FCVT_D_S)
+    };
+
+    private InstructionTable() {
+    }
+
+    private static Entry entry(int xlens, String pattern, Mnemonic mnemonic) {
+        String bits = pattern.replace(" ", "");
+        if (bits.length() != 32) {
+            throw new AssertionError("Bad pattern for " + mnemonic + ": " + pattern);
+        }
+        int mask = 0;
+        int match = 0;
+        for (int i = 0; i < 32; i++) {
+            char bit = bits.charAt(31 - i);
+            if (bit != '-') {
+                mask |= 1 << i;
+                match |= (bit - '0') << i;
+            }
+        }
+        return new Entry(xlens, mask, match, mnemonic);
+    }
+
+    public static List<Entry> getEntries(int xlen) {
+        int flag = xlen == 32 ? RV32 : RV64;
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : ENTRIES) {
+            if ((entry.getXlens() & flag) != 0) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    public static final class Entry {
+        private final int xlens;
+        private final int mask;
+        private final int match;
+        private final Mnemonic mnemonic;
+
+        private Entry(int xlens, int mask, int match, Mnemonic mnemonic) {
+            this.xlens = xlens;
+            this.mask = mask;
+            this.match = match;
+            this.mnemonic = mnemonic;
+        }
+
+        public int getXlens() {
+            return xlens;
+        }
+
+        public int getMask() {
+            return mask;
+        }
+
+        public int getMatch() {
+            return match;
+        }
+
+        public Mnemonic getMnemonic() {
+            return mnemonic;
+        }
+    }
+}
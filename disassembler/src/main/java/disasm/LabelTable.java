@@ -0,0 +1,115 @@
+package disasm;
+
+import java.util.Arrays;
+
+public class LabelTable {
+    private final SymbolTable symbolTable;
+    private final int section;
+    private final long[] addresses;
+    private final String[] names;
+    private final LabelTable[] sections;
+    private final int labelCount;
+
+    public LabelTable(SymbolTable symbolTable, LongHashSet targets) {
+        this(symbolTable, -1, targets, 0);
+    }
+
+    public LabelTable(SymbolTable symbolTable, int[] sectionIndexes, LongHashSet[] targets) {
+        if (!symbolTable.isRelocatable()) {
+            LongHashSet merged = new LongHashSet();
+            for (LongHashSet sectionTargets : targets) {
+                merged.addAll(sectionTargets);
+            }
+            LabelTable table = new LabelTable(symbolTable, -1, merged, 0);
+            this.symbolTable = symbolTable;
+            this.section = -1;
+            this.addresses = table.addresses;
+            this.names = table.names;
+            this.sections = null;
+            this.labelCount = table.labelCount;
+            return;
+        }
+        int sectionCount = 0;
+        for (int index : sectionIndexes) {
+            sectionCount = Math.max(sectionCount, index + 1);
+        }
+        this.symbolTable = symbolTable;
+        this.section = -1;
+        this.addresses = new long[0];
+        this.names = new String[0];
+        this.sections = new LabelTable[sectionCount];
+        int lastLabel = 0;
+        for (int i = 0; i < sectionIndexes.length; i++) {
+            LabelTable table = new LabelTable(symbolTable, sectionIndexes[i], targets[i], lastLabel);
+            sections[sectionIndexes[i]] = table;
+            lastLabel = table.labelCount;
+        }
+        this.labelCount = lastLabel;
+    }
+
+    private LabelTable(SymbolTable symbolTable, int section, LongHashSet targets, int firstLabel) {
+        this.symbolTable = symbolTable;
+        this.section = section;
+        this.sections = null;
+        LongHashSet labeled = new LongHashSet(targets.size());
+        labeled.addAll(targets);
+        for (long address : symbolTable.getFunctionAddresses(section)) {
+            labeled.add(address);
+        }
+
+        addresses = labeled.toSortedArray();
+        names = new String[addresses.length];
+        int lastLabel = firstLabel;
+        for (int i = 0; i < addresses.length; i++) {
+            String name = symbolTable.getAddressName(section, addresses[i]);
+            names[i] = name.isEmpty() ? "L" + lastLabel++ : name;
+        }
+        labelCount = lastLabel;
+    }
+
+    public LabelTable forSection(int index) {
+        if (sections == null || index < 0 || index >= sections.length || sections[index] == null) {
+            return this;
+        }
+        return sections[index];
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public int size() {
+        return addresses.length;
+    }
+
+    public long getAddress(int index) {
+        return addresses[index];
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public int indexOf(long address) {
+        return Arrays.binarySearch(addresses, address);
+    }
+
+    public int firstIndexFrom(long address) {
+        int index = indexOf(address);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    public String getAddressLabel(long address) {
+        int index = indexOf(address);
+        return index >= 0 ? names[index] : "";
+    }
+
+    public void appendReference(AsciiWriter out, long address) {
+        int index = indexOf(address);
+        if (index >= 0) {
+            out.put(" <").put(names[index]).put('>');
+            return;
+        }
+        symbolTable.appendSymbolReference(out, section, address);
+    }
+}
@@ -0,0 +1,220 @@
+package disasm;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public final class Metrics implements MetricsMXBean {
+    public static final boolean ENABLED = Boolean.getBoolean("disasm.metrics");
+    public static final String OBJECT_NAME = "disasm:type=Metrics";
+    private static final Metrics INSTANCE = new Metrics();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final int ENCODING_COUNT = 1 << 17;
+
+    public enum Phase {
+        MAP, SECTIONS, SYMBOLS, DECODE, LABELS, RENDER, CONTROL_FLOW, SEARCH_INDEX
+    }
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final long[] phaseAllocated = new long[Phase.values().length];
+    private final long[] mnemonics = new long[Mnemonic.values().length];
+    private final long[] encodings = ENABLED ? new long[ENCODING_COUNT] : new long[0];
+    private long bytesRead;
+    private long instructions;
+    private long compressed;
+    private long unknown;
+
+    private Metrics() {
+    }
+
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    public static void register() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+    }
+
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    public static long startAllocation() {
+        return ENABLED ? allocatedBytes() : 0;
+    }
+
+    public static void end(Phase phase, long start, long startAllocation) {
+        if (ENABLED) {
+            INSTANCE.add(phase, System.nanoTime() - start, allocatedBytes() - startAllocation);
+        }
+    }
+
+    public static void recordRead(long bytes) {
+        if (ENABLED) {
+            INSTANCE.addRead(bytes);
+        }
+    }
+
+    public static void recordSection(SectionDisassembly section) {
+        if (ENABLED) {
+            INSTANCE.addSection(section);
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            return 0;
+        }
+        long result = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            result += Math.max(allocated, 0);
+        }
+        return result;
+    }
+
+    private static int encodingKey(int command, int length) {
+        if (length == 2) {
+            return (command & 0x3) | (command >>> 13 & 0x7) << 7;
+        }
+        return (command & 0x7f) | (command >>> 12 & 0x7) << 7 | (command >>> 25) << 10;
+    }
+
+    private synchronized void add(Phase phase, long nanos, long allocated) {
+        phaseNanos[phase.ordinal()] += nanos;
+        phaseAllocated[phase.ordinal()] += Math.max(allocated, 0);
+    }
+
+    private synchronized void addRead(long bytes) {
+        bytesRead += bytes;
+    }
+
+    private synchronized void addSection(SectionDisassembly section) {
+        for (int i = 0; i < section.getCount(); i++) {
+            int id = DecodedInstruction.getId(section.getInstruction(i));
+            mnemonics[id]++;
+            encodings[encodingKey(section.getCommand(i), section.getLength(i))]++;
+            if (id == Mnemonic.UNKNOWN.ordinal()) {
+                unknown++;
+            }
+            if (section.isCompressed(i)) {
+                compressed++;
+            }
+        }
+        instructions += section.getCount();
+    }
+
+    @Override
+    public synchronized Map<String, Long> getPhaseNanos() {
+        return toMap(phaseNanos);
+    }
+
+    @Override
+    public synchronized Map<String, Long> getPhaseAllocatedBytes() {
+        return toMap(phaseAllocated);
+    }
+
+    private static Map<String, Long> toMap(long[] values) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            result.put(phase.name().toLowerCase(), values[phase.ordinal()]);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized long getBytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public synchronized long getInstructions() {
+        return instructions;
+    }
+
+    @Override
+    public synchronized long getCompressedInstructions() {
+        return compressed;
+    }
+
+    @Override
+    public synchronized long getUnknownInstructions() {
+        return unknown;
+    }
+
+    @Override
+    public synchronized long getInstructionsPerSecond() {
+        long nanos = phaseNanos[Phase.DECODE.ordinal()];
+        return nanos == 0 ? 0 : (long) (instructions * 1e9 / nanos);
+    }
+
+    @Override
+    public synchronized Map<String, Long> getMnemonicHistogram() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < mnemonics.length; i++) {
+            if (mnemonics[i] != 0) {
+                result.put(Mnemonic.of(i).getText(), mnemonics[i]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized String getJson() {
+        AsciiWriter out = new AsciiWriter();
+        write(out);
+        return out.toString();
+    }
+
+    @Override
+    public synchronized void reset() {
+        Arrays.fill(phaseNanos, 0);
+        Arrays.fill(phaseAllocated, 0);
+        Arrays.fill(mnemonics, 0);
+        Arrays.fill(encodings, 0);
+        bytesRead = 0;
+        instructions = 0;
+        compressed = 0;
+        unknown = 0;
+    }
+
+    public synchronized void write(AsciiWriter out) {
+        out.put("{\n  \"phases\": {");
+        for (Phase phase : Phase.values()) {
+            out.put(phase.ordinal() == 0 ? "\n" : ",\n")
+                    .put("    \"").put(phase.name().toLowerCase()).put("\": {\"nanos\": ")
+                    .putDecimal(phaseNanos[phase.ordinal()]).put(", \"allocatedBytes\": ")
+                    .putDecimal(phaseAllocated[phase.ordinal()]).put('}');
+        }
+        out.put("\n  },\n  \"bytesRead\": ").putDecimal(bytesRead)
+                .put(",\n  \"instructions\": ").putDecimal(instructions)
+                .put(",\n  \"compressedInstructions\": ").putDecimal(compressed)
+                .put(",\n  \"unknownInstructions\": ").putDecimal(unknown)
+                .put(",\n  \"instructionsPerSecond\": ").putDecimal(getInstructionsPerSecond())
+                .put(",\n  \"mnemonics\": {");
+        boolean first = true;
+        for (int i = 0; i < mnemonics.length; i++) {
+            if (mnemonics[i] != 0) {
+                out.put(first ? "\n" : ",\n").put("    \"").put(Mnemonic.of(i).getText()).put("\": ")
+                        .putDecimal(mnemonics[i]);
+                first = false;
+            }
+        }
+        out.put("\n  },\n  \"encodings\": [");
+        first = true;
+        for (int i = 0; i < encodings.length; i++) {
+            if (encodings[i] != 0) {
+                out.put(first ? "\n" : ",\n").put("    {\"opcode\": \"0x").putHex(i & 0x7f, 2)
+                        .put("\", \"funct3\": ").putDecimal(i >>> 7 & 0x7)
+                        .put(", \"funct7\": \"0x").putHex(i >>> 10, 2)
+                        .put("\", \"count\": ").putDecimal(encodings[i]).put('}');
+                first = false;
+            }
+        }
+        out.put("\n  ]\n}\n");
+    }
+}
@@ -0,0 +1,25 @@
+package disasm;
+
+import java.util.Map;
+
+public interface MetricsMXBean {
+    Map<String, Long> getPhaseNanos();
+
+    Map<String, Long> getPhaseAllocatedBytes();
+
+    long getBytesRead();
+
+    long getInstructions();
+
+    long getCompressedInstructions();
+
+    long getUnknownInstructions();
+
+    long getInstructionsPerSecond();
+
+    Map<String, Long> getMnemonicHistogram();
+
+    String getJson();
+
+    void reset();
+}
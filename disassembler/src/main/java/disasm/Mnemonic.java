@@ -0,0 +1,186 @@
+package disasm;
+
+public enum Mnemonic {
+    UNKNOWN("unknown_instruction", InstructionFormat.NONE),
+    LUI("lui", InstructionFormat.U),
+    AUIPC("auipc", InstructionFormat.U),
+    JAL("jal", InstructionFormat.JAL),
+    JALR("jalr", InstructionFormat.JALR),
+    BEQ("beq", InstructionFormat.BRANCH),
+    BNE("bne", InstructionFormat.BRANCH),
+    BLT("blt", InstructionFormat.BRANCH),
+    BGE("bge", InstructionFormat.BRANCH),
+    BLTU("bltu", InstructionFormat.BRANCH),
+    BGEU("bgeu", InstructionFormat.BRANCH),
+    LB("lb", InstructionFormat.LOAD),
+    LH("lh", InstructionFormat.LOAD),
+    LW("lw", InstructionFormat.LOAD),
+    LBU("lbu", InstructionFormat.LOAD),
+    LHU("lhu", InstructionFormat.LOAD),
+    SB("sb", InstructionFormat.STORE),
+    SH("sh", InstructionFormat.STORE),
+    SW("sw", InstructionFormat.STORE),
+    ADDI("addi", InstructionFormat.I),
+    SLTI("slti", InstructionFormat.I),
+    SLTIU("sltiu", InstructionFormat.I),
+    XORI("xori", InstructionFormat.I),
+    ORI("ori", InstructionFormat.I),
+    ANDI("andi", InstructionFormat.I),
+    SLLI("slli", InstructionFormat.SHIFT),
+    SRLI("srli", InstructionFormat.SHIFT),
+    SRAI("srai", InstructionFormat.SHIFT),
+    ADD("add", InstructionFormat.R),
+    SUB("sub", InstructionFormat.R),
+    SLL("sll", InstructionFormat.R),
+    SLT("slt", InstructionFormat.R),
+    SLTU("sltu", InstructionFormat.R),
+    XOR("xor", InstructionFormat.R),
+    SRL("srl", InstructionFormat.R),
+    SRA("sra", InstructionFormat.R),
+    OR("or", InstructionFormat.R),
+    AND("and", InstructionFormat.R),
+    MUL("mul", InstructionFormat.R),
+    MULH("mulh", InstructionFormat.R),
+    MULHSU("mulhsu", InstructionFormat.R),
+    MULHU("mulhu", InstructionFormat.R),
+    DIV("div", InstructionFormat.R),
+    DIVU("divu", InstructionFormat.R),
+    REM("rem", InstructionFormat.R),
+    REMU("remu", InstructionFormat.R),
+    LD("ld", InstructionFormat.LOAD),
+    LWU("lwu", InstructionFormat.LOAD),
+    SD("sd", InstructionFormat.STORE),
+    ADDIW("addiw", InstructionFormat.I),
+    SLLIW("slliw", InstructionFormat.SHIFT),
+    SRLIW("srliw", InstructionFormat.SHIFT),
+    SRAIW("sraiw", InstructionFormat.SHIFT),
+    ADDW("addw", InstructionFormat.R),
+    SUBW("subw", InstructionFormat.R),
+    SLLW("sllw", InstructionFormat.R),
+    SRLW("srlw", InstructionFormat.R),
+    SRAW("sraw", InstructionFormat.R),
+    MULW("mulw", InstructionFormat.R),
+    DIVW("divw", InstructionFormat.R),
+    DIVUW("divuw", InstructionFormat.R),
+    REMW("remw", InstructionFormat.R),
+    REMUW("remuw", InstructionFormat.R),
+    FENCE("fence", InstructionFormat.NONE),
+    ECALL("ecall", InstructionFormat.NONE),
+    EBREAK("ebreak", InstructionFormat.NONE),
+    FENCE_I("fence.i", InstructionFormat.NONE),
+    MRET("mret", InstructionFormat.NONE),
+    SRET("sret", InstructionFormat.NONE),
+    WFI("wfi", InstructionFormat.NONE),
+    CSRRW("csrrw", InstructionFormat.CSR),
+    CSRRS("csrrs", InstructionFormat.CSR),
+    CSRRC("csrrc", InstructionFormat.CSR),
+    CSRRWI("csrrwi", InstructionFormat.CSRI),
+    CSRRSI("csrrsi", InstructionFormat.CSRI),
+    CSRRCI("csrrci", InstructionFormat.CSRI),
+    LR_W("lr.w", InstructionFormat.LR),
+    SC_W("sc.w", InstructionFormat.AMO),
+    AMOSWAP_W("amoswap.w", InstructionFormat.AMO),
+    AMOADD_W("amoadd.w", InstructionFormat.AMO),
+    AMOXOR_W("amoxor.w", InstructionFormat.AMO),
+    AMOAND_W("amoand.w", InstructionFormat.AMO),
+    AMOOR_W("amoor.w", InstructionFormat.AMO),
+    AMOMIN_W("amomin.w", InstructionFormat.AMO),
+    AMOMAX_W("amomax.w", InstructionFormat.AMO),
+    AMOMINU_W("amominu.w", InstructionFormat.AMO),
+    AMOMAXU_W("amomaxu.w", InstructionFormat.AMO),
+    LR_D("lr.d", InstructionFormat.LR),
+    SC_D("sc.d", InstructionFormat.AMO),
+    AMOSWAP_D("amoswap.d", InstructionFormat.AMO),
+    AMOADD_D("amoadd.d", InstructionFormat.AMO),
+    AMOXOR_D("amoxor.d", InstructionFormat.AMO),
+    AMOAND_D("amoand.d", InstructionFormat.AMO),
+    AMOOR_D("amoor.d", InstructionFormat.AMO),
+    AMOMIN_D("amomin.d", InstructionFormat.AMO),
+    AMOMAX_D("amomax.d", InstructionFormat.AMO),
+    AMOMINU_D("amominu.d", InstructionFormat.AMO),
+    AMOMAXU_D("amomaxu.d", InstructionFormat.AMO),
+    FLW("flw", InstructionFormat.FLOAD),
+    FSW("fsw", InstructionFormat.FSTORE),
+    FMADD_S("fmadd.s", InstructionFormat.R4),
+    FMSUB_S("fmsub.s", InstructionFormat.R4),
+    FNMSUB_S("fnmsub.s", InstructionFormat.R4),
+    FNMADD_S("fnmadd.s", InstructionFormat.R4),
+    FADD_S("fadd.s", InstructionFormat.FR_RM),
+    FSUB_S("fsub.s", InstructionFormat.FR_RM),
+    FMUL_S("fmul.s", InstructionFormat.FR_RM),
+    FDIV_S("fdiv.s", InstructionFormat.FR_RM),
+    FSQRT_S("fsqrt.s", InstructionFormat.F1_RM),
+    FSGNJ_S("fsgnj.s", InstructionFormat.FR),
+    FSGNJN_S("fsgnjn.s", InstructionFormat.FR),
+    FSGNJX_S("fsgnjx.s", InstructionFormat.FR),
+    FMIN_S("fmin.s", InstructionFormat.FR),
+    FMAX_S("fmax.s", InstructionFormat.FR),
+    FCVT_W_S("fcvt.w.s", InstructionFormat.F_TO_X_RM),
+    FCVT_S_W("fcvt.s.w", InstructionFormat.X_TO_F_RM),
+    FCVT_WU_S("fcvt.wu.s", InstructionFormat.F_TO_X_RM),
+    FCVT_S_WU("fcvt.s.wu", InstructionFormat.X_TO_F_RM),
+    FCVT_L_S("fcvt.l.s", InstructionFormat.F_TO_X_RM),
+    FCVT_S_L("fcvt.s.l", InstructionFormat.X_TO_F_RM),
+    FCVT_LU_S("fcvt.lu.s", InstructionFormat.F_TO_X_RM),
+    FCVT_S_LU("fcvt.s.lu", InstructionFormat.X_TO_F_RM),
+    FEQ_S("feq.s", InstructionFormat.FCMP),
+    FLT_S("flt.s", InstructionFormat.FCMP),
+    FLE_S("fle.s", InstructionFormat.FCMP),
+    FCLASS_S("fclass.s", InstructionFormat.F_TO_X),
+    FLD("fld", InstructionFormat.FLOAD),
+    FSD("fsd", InstructionFormat.FSTORE),
+    FMADD_D("fmadd.d", InstructionFormat.R4),
+    FMSUB_D("fmsub.d", InstructionFormat.R4),
+    FNMSUB_D("fnmsub.d", InstructionFormat.R4),
+    FNMADD_D("fnmadd.d", InstructionFormat.R4),
+    FADD_D("fadd.d", InstructionFormat.FR_RM),
+    FSUB_D("fsub.d", InstructionFormat.FR_RM),
+    FMUL_D("fmul.d", InstructionFormat.FR_RM),
+    FDIV_D("fdiv.d", InstructionFormat.FR_RM),
+    FSQRT_D("fsqrt.d", InstructionFormat.F1_RM),
+    FSGNJ_D("fsgnj.d", InstructionFormat.FR),
+    FSGNJN_D("fsgnjn.d", InstructionFormat.FR),
+    FSGNJX_D("fsgnjx.d", InstructionFormat.FR),
+    FMIN_D("fmin.d", InstructionFormat.FR),
+    FMAX_D("fmax.d", InstructionFormat.FR),
+    FCVT_W_D("fcvt.w.d", InstructionFormat.F_TO_X_RM),
+    FCVT_D_W("fcvt.d.w", InstructionFormat.X_TO_F_RM),
+    FCVT_WU_D("fcvt.wu.d", InstructionFormat.F_TO_X_RM),
+    FCVT_D_WU("fcvt.d.wu", InstructionFormat.X_TO_F_RM),
+    FCVT_L_D("fcvt.l.d", InstructionFormat.F_TO_X_RM),
+    FCVT_D_L("fcvt.d.l", InstructionFormat.X_TO_F_RM),
+    FCVT_LU_D("fcvt.lu.d", InstructionFormat.F_TO_X_RM),
+    FCVT_D_LU("fcvt.d.lu", InstructionFormat.X_TO_F_RM),
+    FEQ_D("feq.d", InstructionFormat.FCMP),
+    FLT_D("flt.d", InstructionFormat.FCMP),
+    FLE_D("fle.d", InstructionFormat.FCMP),
+    FCLASS_D("fclass.d", InstructionFormat.F_TO_X),
+    FMV_X_W("fmv.x.w", InstructionFormat.F_TO_X),
+    FMV_W_X("fmv.w.x", InstructionFormat.X_TO_F),
+    FMV_X_D("fmv.x.d", InstructionFormat.F_TO_X),
+    FMV_D_X("fmv.d.x", InstructionFormat.X_TO_F),
+    FCVT_S_D("fcvt.s.d", InstructionFormat.F1_RM),
+    FCVT_D_S("fcvt.d.s", InstructionFormat.F1_RM);
+
+    private static final Mnemonic[] VALUES = values();
+
+    private final String text;
+    private final InstructionFormat format;
+
+    Mnemonic(String text, InstructionFormat format) {
+        this.text = text;
+        this.format = format;
+    }
+
+    public static Mnemonic of(int id) {
+        return VALUES[id];
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public InstructionFormat getFormat() {
+        return format;
+    }
+}
@@ -0,0 +1,264 @@
+package disasm;
+
+import java.util.Arrays;
+
+public class RelocationTable {
+    public static final int ET_REL = 1;
+    private final SectionTable sections;
+    private final SymbolTable symbols;
+    private final int[] firsts;
+    private final long[] offsets;
+    private final int[] symbolIndexes;
+    private final int[] types;
+    private final long[] addends;
+    private final boolean[] explicitAddends;
+
+    public RelocationTable(ELFFile file, ELFLayout layout, SectionTable sections, SymbolTable symbols) {
+        this.sections = sections;
+        this.symbols = symbols;
+        boolean relocatable = file.getHalf(16) == ET_REL;
+        int count = 0;
+        for (int s = 0; s < sections.size(); s++) {
+            if (isRelocationSection(sections, s)) {
+                count += sections.getSize(s) / getEntrySize(layout, sections.getType(s));
+            }
+        }
+        long[] keys = new long[count];
+        long[] entryOffsets = new long[count];
+        int[] entrySymbols = new int[count];
+        int[] entryTypes = new int[count];
+        long[] entryAddends = new long[count];
+        boolean[] entryExplicit = new boolean[count];
+        int index = 0;
+        for (int s = 0; s < sections.size(); s++) {
+            if (!isRelocationSection(sections, s)) {
+                continue;
+            }
+            int target = sections.getInfo(s);
+            boolean rela = sections.getType(s) == SectionTable.SHT_RELA;
+            int entrySize = getEntrySize(layout, sections.getType(s));
+            int end = sections.getOffset(s) + sections.getSize(s) / entrySize * entrySize;
+            for (int position = sections.getOffset(s); position < end; position += entrySize, index++) {
+                long offset = layout.getAddress(file, position);
+                long info = layout.getAddress(file, position + layout.ADDRESS_SIZE);
+                if (!relocatable) {
+                    offset -= sections.getAddress(target);
+                }
+                entryOffsets[index] = offset;
+                entrySymbols[index] = layout == ELFLayout.ELF32 ? (int) (info >>> 8) : (int) (info >>> 32);
+                entryTypes[index] = layout == ELFLayout.ELF32 ? (int) (info & 0xff) : (int) info;
+                entryAddends[index] = rela ? getSignedAddress(file, layout, position + 2 * layout.ADDRESS_SIZE) : 0;
+                entryExplicit[index] = rela;
+                keys[index] = (long) target << 32 | (offset & 0xffffffffL);
+            }
+        }
+
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        sort(keys, order, new int[count], 0, count);
+        firsts = new int[sections.size() + 1];
+        offsets = new long[count];
+        symbolIndexes = new int[count];
+        types = new int[count];
+        addends = new long[count];
+        explicitAddends = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            int entry = order[i];
+            firsts[(int) (keys[entry] >>> 32) + 1]++;
+            offsets[i] = entryOffsets[entry];
+            symbolIndexes[i] = entrySymbols[entry];
+            types[i] = entryTypes[entry];
+            addends[i] = entryAddends[entry];
+            explicitAddends[i] = entryExplicit[entry];
+        }
+        for (int s = 0; s < sections.size(); s++) {
+            firsts[s + 1] += firsts[s];
+        }
+    }
+
+    private static boolean isRelocationSection(SectionTable sections, int section) {
+        int type = sections.getType(section);
+        int target = sections.getInfo(section);
+        return (type == SectionTable.SHT_RELA || type == SectionTable.SHT_REL)
+                && target > 0 && target < sections.size();
+    }
+
+    private static int getEntrySize(ELFLayout layout, int type) {
+        return (type == SectionTable.SHT_RELA ? 3 : 2) * layout.ADDRESS_SIZE;
+    }
+
+    private static long getSignedAddress(ELFFile file, ELFLayout layout, int position) {
+        return layout == ELFLayout.ELF32 ? file.getWord(position) : file.getDoubleWord(position);
+    }
+
+    private static void sort(long[] keys, int[] values, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(keys, values, buffer, from, middle);
+        sort(keys, values, buffer, middle, to);
+        if (keys[values[middle - 1]] <= keys[values[middle]]) {
+            return;
+        }
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && keys[values[left]] <= keys[values[right]])) {
+                buffer[i] = values[left++];
+            } else {
+                buffer[i] = values[right++];
+            }
+        }
+        System.arraycopy(buffer, from, values, from, to - from);
+    }
+
+    public int size() {
+        return offsets.length;
+    }
+
+    public int getFirst(int section) {
+        return firsts[section];
+    }
+
+    public int getLast(int section) {
+        return firsts[section + 1];
+    }
+
+    public long getOffset(int relocation) {
+        return offsets[relocation];
+    }
+
+    public int getSymbol(int relocation) {
+        return symbolIndexes[relocation];
+    }
+
+    public int getType(int relocation) {
+        return types[relocation];
+    }
+
+    public long getAddend(int relocation) {
+        return addends[relocation];
+    }
+
+    public boolean hasAddend(int relocation) {
+        return explicitAddends[relocation];
+    }
+
+    public int indexOf(int section, long offset) {
+        int low = firsts[section];
+        int high = firsts[section + 1];
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (offsets[middle] < offset) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public boolean contains(int section, long offset, int length) {
+        int relocation = indexOf(section, offset);
+        return relocation < firsts[section + 1] && offsets[relocation] < offset + length;
+    }
+
+    public void append(AsciiWriter out, int section, long offset, int length, long address) {
+        if (firsts[section] == firsts[section + 1]) {
+            return;
+        }
+        int last = firsts[section + 1];
+        for (int i = indexOf(section, offset); i < last && offsets[i] < offset + length; i++) {
+            out.put("\t\t\t").putHex(address + offsets[i] - offset, 1).put(": ");
+            String name = getTypeName(types[i]);
+            if (name == null) {
+                out.put("R_RISCV_").putDecimal(types[i]);
+            } else {
+                out.put(name);
+            }
+            out.put('\t');
+            appendSymbol(out, symbolIndexes[i]);
+            if (explicitAddends[i] && addends[i] != 0) {
+                out.put(addends[i] < 0 ? "-0x" : "+0x").putHex(Math.abs(addends[i]), 1);
+            }
+            out.put('\n');
+        }
+    }
+
+    private void appendSymbol(AsciiWriter out, int symbol) {
+        if (symbol == 0 || symbol >= symbols.size()) {
+            out.put("*ABS*");
+        } else if (symbols.getType(symbol) == SymbolTable.STT_SECTION && symbols.getShndx(symbol) < sections.size()) {
+            out.put(sections.getName(symbols.getShndx(symbol)));
+        } else {
+            symbols.appendName(out, symbol);
+        }
+    }
+
+    public static String getTypeName(int type) {
+        return switch (type) {
+            case 0 -> "R_RISCV_NONE";
+            case 1 -> "R_RISCV_32";
+            case 2 -> "R_RISCV_64";
+            case 3 -> "R_RISCV_RELATIVE";
+            case 4 -> "R_RISCV_COPY";
+            case 5 -> "R_RISCV_JUMP_SLOT";
+            case 6 -> "R_RISCV_TLS_DTPMOD32";
+            case 7 -> "R_RISCV_TLS_DTPMOD64";
+            case 8 -> "R_RISCV_TLS_DTPREL32";
+            case 9 -> "R_RISCV_TLS_DTPREL64";
+            case 10 -> "R_RISCV_TLS_TPREL32";
+            case 11 -> "R_RISCV_TLS_TPREL64";
+            case 12 -> "R_RISCV_TLSDESC";
+            case 16 -> "R_RISCV_BRANCH";
+            case 17 -> "R_RISCV_JAL";
+            case 18 -> "R_RISCV_CALL";
+            case 19 -> "R_RISCV_CALL_PLT";
+            case 20 -> "R_RISCV_GOT_HI20";
+            case 21 -> "R_RISCV_TLS_GOT_HI20";
+            case 22 -> "R_RISCV_TLS_GD_HI20";
+            case 23 -> "R_RISCV_PCREL_HI20";
+            case 24 -> "R_RISCV_PCREL_LO12_I";
+            case 25 -> "R_RISCV_PCREL_LO12_S";
+            case 26 -> "R_RISCV_HI20";
+            case 27 -> "R_RISCV_LO12_I";
+            case 28 -> "R_RISCV_LO12_S";
+            case 29 -> "R_RISCV_TPREL_HI20";
+            case 30 -> "R_RISCV_TPREL_LO12_I";
+            case 31 -> "R_RISCV_TPREL_LO12_S";
+            case 32 -> "R_RISCV_TPREL_ADD";
+            case 33 -> "R_RISCV_ADD8";
+            case 34 -> "R_RISCV_ADD16";
+            case 35 -> "R_RISCV_ADD32";
+            case 36 -> "R_RISCV_ADD64";
+            case 37 -> "R_RISCV_SUB8";
+            case 38 -> "R_RISCV_SUB16";
+            case 39 -> "R_RISCV_SUB32";
+            case 40 -> "R_RISCV_SUB64";
+            case 41 -> "R_RISCV_GOT32_PCREL";
+            case 43 -> "R_RISCV_ALIGN";
+            case 44 -> "R_RISCV_RVC_BRANCH";
+            case 45 -> "R_RISCV_RVC_JUMP";
+            case 46 -> "R_RISCV_RVC_LUI";
+            case 51 -> "R_RISCV_RELAX";
+            case 52 -> "R_RISCV_SUB6";
+            case 53 -> "R_RISCV_SET6";
+            case 54 -> "R_RISCV_SET8";
+            case 55 -> "R_RISCV_SET16";
+            case 56 -> "R_RISCV_SET32";
+            case 57 -> "R_RISCV_32_PCREL";
+            case 58 -> "R_RISCV_IRELATIVE";
+            case 59 -> "R_RISCV_PLT32";
+            case 60 -> "R_RISCV_SET_ULEB128";
+            case 61 -> "R_RISCV_SUB_ULEB128";
+            case 62 -> "R_RISCV_TLSDESC_HI20";
+            case 63 -> "R_RISCV_TLSDESC_LOAD_LO12";
+            case 64 -> "R_RISCV_TLSDESC_ADD_LO12";
+            case 65 -> "R_RISCV_TLSDESC_CALL";
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,370 @@
+package disasm;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+public class SectionDisassembly {
+    public static final int CHUNK_SIZE = 1 << 14;
+    private static final int GLOBAL_POINTER_REGISTER = 3;
+    private final ELFFile file;
+    private final int section;
+    private final String name;
+    private final int position;
+    private final long virtualAddress;
+    private final InstructionDecoder decoder;
+    private final long addressMask;
+    private final int[] offsets;
+    private final long[] instructions;
+    private final LongHashSet targets;
+    private final RelocationTable relocations;
+    private final boolean hasGlobalPointer;
+    private final long globalPointer;
+
+    public SectionDisassembly(ELFParser parser, int section) {
+        this(parser, section, null);
+    }
+
+    public SectionDisassembly(ELFParser parser, int section, ForkJoinPool pool) {
+        this(parser, section, pool, true);
+    }
+
+    public SectionDisassembly(ELFParser parser, int section, ForkJoinPool pool, boolean decode) {
+        this(parser, section, pool, decode, 0, parser.getSectionTable().getSize(section));
+    }
+
+    public SectionDisassembly(ELFParser parser, int section, int from, int to) {
+        this(parser, section, null, true, from, to);
+    }
+
+    private SectionDisassembly(ELFParser parser, int section, ForkJoinPool pool, boolean decode, int from, int to) {
+        SectionTable sections = parser.getSectionTable();
+        int size = sections.getSize(section);
+        this.file = parser.getFile();
+        this.section = section;
+        this.name = sections.getName(section);
+        this.position = sections.getOffset(section);
+        this.virtualAddress = sections.getAddress(section);
+        this.decoder = InstructionDecoder.forXlen(parser.getXlen());
+        this.addressMask = parser.getXlen() == 32 ? 0xffffffffL : -1L;
+        this.relocations = parser.getRelocationTable();
+        int pointer = parser.getSymbolTable().indexOfGlobalPointer();
+        this.hasGlobalPointer = pointer >= 0;
+        this.globalPointer = pointer < 0 ? 0 : parser.getSymbolTable().getValue(pointer);
+        this.offsets = findInstructionOffsets(file, position, size, from, to);
+        this.instructions = new long[offsets.length - 1];
+        if (!decode) {
+            this.targets = new LongHashSet();
+        } else if (pool == null || instructions.length <= CHUNK_SIZE) {
+            this.targets = decode(0, instructions.length);
+        } else {
+            this.targets = pool.invoke(new DecodeTask(0, instructions.length));
+        }
+    }
+
+    private static int[] findInstructionOffsets(ELFFile file, int position, int size, int from, int to) {
+        int[] result = new int[(to - from) / 4 + 2];
+        int count = 0;
+        int offset = from;
+        while (offset + 1 < size && offset < to) {
+            if (count + 1 == result.length) {
+                result = Arrays.copyOf(result, result.length + (result.length >> 1));
+            }
+            result[count++] = offset;
+            offset += getInstructionLength(file, position, size, offset);
+        }
+        result[count++] = offset;
+        return result.length == count ? result : Arrays.copyOf(result, count);
+    }
+
+    public static int getInstructionLength(ELFFile file, int position, int size, int offset) {
+        return InstructionDecoder.isCompressed(file.getHalf(position + offset)) || offset + 3 >= size ? 2 : 4;
+    }
+
+    public LongHashSet decode(int from, int to) {
+        LongHashSet result = new LongHashSet();
+        for (int i = from; i < to; i++) {
+            instructions[i] = decoder.decode(getCommand(i), getLength(i));
+            switch (DecodedInstruction.getMnemonic(instructions[i]).getFormat()) {
+                case BRANCH, JAL -> {
+                    if (!isRelocated(i)) {
+                        result.add(getTarget(i));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return result;
+    }
+
+    public int getSection() {
+        return section;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return instructions.length;
+    }
+
+    public long getAddress(int number) {
+        return virtualAddress + offsets[number];
+    }
+
+    public int indexOf(long address) {
+        int low = 0;
+        int high = instructions.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getAddress(middle) < address) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public int getOffset(int number) {
+        return offsets[number];
+    }
+
+    public int getPosition(int number) {
+        return position + offsets[number];
+    }
+
+    public long getTarget(int number) {
+        return (getAddress(number) + DecodedInstruction.getImmediate(instructions[number])) & addressMask;
+    }
+
+    public int getLength(int number) {
+        return offsets[number + 1] - offsets[number];
+    }
+
+    public boolean isRelocated(int number) {
+        return relocations.contains(section, offsets[number], getLength(number));
+    }
+
+    public boolean isCompressed(int number) {
+        return getLength(number) == 2;
+    }
+
+    public int getCommand(int number) {
+        if (isCompressed(number)) {
+            return file.getHalf(position + offsets[number]);
+        }
+        return file.getWord(position + offsets[number]);
+    }
+
+    public long getInstruction(int number) {
+        return instructions[number];
+    }
+
+    public LongHashSet getTargets() {
+        return targets;
+    }
+
+    public void append(AsciiWriter out, int from, int to, LabelTable labels) {
+        labels = labels.forSection(section);
+        int label = labels.firstIndexFrom(getAddress(from));
+        for (int i = from; i < to; i++) {
+            long address = getAddress(i);
+            while (label < labels.size() && labels.getAddress(label) < address) {
+                label++;
+            }
+            if (label < labels.size() && labels.getAddress(label) == address) {
+                out.put('\n').putHex(address, 8)
+                        .put("   <").put(labels.getName(label)).put(">:\n");
+            }
+            appendInstruction(out, i, labels);
+        }
+    }
+
+    public void appendInstruction(AsciiWriter out, int number, LabelTable labels) {
+        labels = labels.forSection(section);
+        boolean materialized = hasMaterializedAddress(number) && !isRelocated(number - 1);
+        String jump = materialized && InstructionPrinter.ALIASES ? getJumpAlias(number) : null;
+        if (jump != null) {
+            InstructionPrinter.appendJump(out, getAddress(number), getCommand(number), getLength(number), jump,
+                    getMaterializedAddress(number), labels);
+        } else {
+            InstructionPrinter.append(out, getAddress(number), getCommand(number), getLength(number),
+                    instructions[number], getTarget(number), labels);
+            if (materialized) {
+                appendAddress(out, getMaterializedAddress(number), labels);
+            } else if (InstructionPrinter.ALIASES && hasGlobalPointerAddress(number) && !isRelocated(number)) {
+                appendAddress(out, getGlobalPointerAddress(number), labels);
+            }
+        }
+        out.put('\n');
+        relocations.append(out, section, offsets[number], getLength(number), getAddress(number));
+    }
+
+    private static void appendAddress(AsciiWriter out, long value, LabelTable labels) {
+        out.put(" # ").putHex(value, 1);
+        labels.appendReference(out, value);
+    }
+
+    public String getAlias(int number) {
+        String jump = hasMaterializedAddress(number) && !isRelocated(number - 1) ? getJumpAlias(number) : null;
+        return jump != null ? jump : InstructionPrinter.getAlias(instructions[number], getLength(number));
+    }
+
+    private String getJumpAlias(int number) {
+        if (DecodedInstruction.getMnemonic(instructions[number]) != Mnemonic.JALR
+                || DecodedInstruction.getMnemonic(instructions[number - 1]) != Mnemonic.AUIPC) {
+            return null;
+        }
+        return switch (DecodedInstruction.getRd(instructions[number])) {
+            case 0 -> "tail";
+            case 1 -> "call";
+            default -> null;
+        };
+    }
+
+    public boolean hasGlobalPointerAddress(int number) {
+        long instruction = instructions[number];
+        if (!hasGlobalPointer || DecodedInstruction.getRs1(instruction) != GLOBAL_POINTER_REGISTER) {
+            return false;
+        }
+        return switch (DecodedInstruction.getMnemonic(instruction).getFormat()) {
+            case I -> DecodedInstruction.getMnemonic(instruction) == Mnemonic.ADDI;
+            case LOAD, STORE, FLOAD, FSTORE -> true;
+            default -> false;
+        };
+    }
+
+    public long getGlobalPointerAddress(int number) {
+        return (globalPointer + DecodedInstruction.getImmediate(instructions[number])) & addressMask;
+    }
+
+    public boolean hasMaterializedAddress(int number) {
+        if (number == 0) {
+            return false;
+        }
+        long previous = instructions[number - 1];
+        long current = instructions[number];
+        int rd = DecodedInstruction.getRd(previous);
+        if (rd == 0 || DecodedInstruction.getRs1(current) != rd) {
+            return false;
+        }
+        switch (DecodedInstruction.getMnemonic(previous)) {
+            case LUI, AUIPC -> {
+            }
+            default -> {
+                return false;
+            }
+        }
+        return switch (DecodedInstruction.getMnemonic(current).getFormat()) {
+            case I -> DecodedInstruction.getMnemonic(current) == Mnemonic.ADDI;
+            case LOAD, STORE, JALR, FLOAD, FSTORE -> true;
+            default -> false;
+        };
+    }
+
+    public long getMaterializedAddress(int number) {
+        long previous = instructions[number - 1];
+        long value = (long) DecodedInstruction.getImmediate(previous)
+                + DecodedInstruction.getImmediate(instructions[number]);
+        if (DecodedInstruction.getMnemonic(previous) == Mnemonic.AUIPC) {
+            value += getAddress(number - 1);
+        }
+        return value & addressMask;
+    }
+
+    public long[] getReferences(int from, int to) {
+        LongHashSet result = new LongHashSet();
+        for (int i = from; i < to; i++) {
+            switch (DecodedInstruction.getMnemonic(instructions[i]).getFormat()) {
+                case BRANCH, JAL -> result.add(getTarget(i));
+                default -> {
+                }
+            }
+            if (hasMaterializedAddress(i)) {
+                result.add(getMaterializedAddress(i));
+            } else if (InstructionPrinter.ALIASES && hasGlobalPointerAddress(i)) {
+                result.add(getGlobalPointerAddress(i));
+            }
+        }
+        return result.toSortedArray();
+    }
+
+    public void write(AsciiWriter out, LabelTable labels, ForkJoinPool pool) {
+        if (pool == null) {
+            append(out, 0, instructions.length, labels);
+            return;
+        }
+        int chunkCount = (instructions.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        AsciiWriter[] buffers = new AsciiWriter[pool.getParallelism() * 2];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new AsciiWriter();
+        }
+        for (int first = 0; first < chunkCount; first += buffers.length) {
+            int count = Math.min(buffers.length, chunkCount - first);
+            pool.invoke(new RenderTask(buffers, first, 0, count, labels));
+            for (int i = 0; i < count; i++) {
+                out.put(buffers[i]);
+            }
+        }
+    }
+
+    private class DecodeTask extends RecursiveTask<LongHashSet> {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+
+        private DecodeTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LongHashSet compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return decode(from, to);
+            }
+            int middle = from + (to - from) / 2;
+            DecodeTask left = new DecodeTask(from, middle);
+            left.fork();
+            LongHashSet result = new DecodeTask(middle, to).compute();
+            result.addAll(left.join());
+            return result;
+        }
+    }
+
+    private class RenderTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final AsciiWriter[] buffers;
+        private final int firstChunk;
+        private final int from;
+        private final int to;
+        private final LabelTable labels;
+
+        private RenderTask(AsciiWriter[] buffers, int firstChunk, int from, int to, LabelTable labels) {
+            this.buffers = buffers;
+            this.firstChunk = firstChunk;
+            this.from = from;
+            this.to = to;
+            this.labels = labels;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = from + (to - from) / 2;
+                invokeAll(new RenderTask(buffers, firstChunk, from, middle, labels),
+                        new RenderTask(buffers, firstChunk, middle, to, labels));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int start = (firstChunk + i) * CHUNK_SIZE;
+                buffers[i].reset();
+                append(buffers[i], start, Math.min(start + CHUNK_SIZE, instructions.length), labels);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package disasm;
+
+public class SectionTable {
+    public static final int SHT_NULL = 0;
+    public static final int SHT_PROGBITS = 1;
+    public static final int SHT_SYMTAB = 2;
+    public static final int SHT_STRTAB = 3;
+    public static final int SHT_RELA = 4;
+    public static final int SHT_NOBITS = 8;
+    public static final int SHT_REL = 9;
+    public static final long SHF_ALLOC = 0x2;
+    public static final long SHF_EXECINSTR = 0x4;
+
+    private final ELFFile file;
+    private final int count;
+    private final int namesPosition;
+    private final int[] nameOffsets;
+    private final int[] types;
+    private final long[] flags;
+    private final long[] addresses;
+    private final int[] offsets;
+    private final int[] sizes;
+    private final int[] links;
+    private final int[] infos;
+    private final int[] entrySizes;
+    private final String[] names;
+    private final int[] nameIndex;
+
+    public SectionTable(ELFFile file, ELFLayout layout, int position, int entrySize, int count, int namesSection) {
+        this.file = file;
+        this.count = count;
+        nameOffsets = new int[count];
+        types = new int[count];
+        flags = new long[count];
+        addresses = new long[count];
+        offsets = new int[count];
+        sizes = new int[count];
+        links = new int[count];
+        infos = new int[count];
+        entrySizes = new int[count];
+        names = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            int header = position + i * entrySize;
+            nameOffsets[i] = file.getWord(header);
+            types[i] = file.getWord(header + 4);
+            flags[i] = layout.getAddress(file, header + layout.SECTION_FLAGS);
+            addresses[i] = layout.getAddress(file, header + layout.SECTION_ADDRESS);
+            offsets[i] = types[i] == SHT_NOBITS ? 0 : layout.getOffset(file, header + layout.SECTION_OFFSET);
+            sizes[i] = layout.getSize(file, header + layout.SECTION_SIZE);
+            links[i] = file.getWord(header + layout.SECTION_LINK);
+            infos[i] = file.getWord(header + layout.SECTION_INFO);
+            entrySizes[i] = layout.getSize(file, header + layout.SECTION_ENTRY_SIZE);
+        }
+        namesPosition = namesSection < count ? offsets[namesSection] : 0;
+
+        int capacity = 16;
+        while (capacity < count * 2) {
+            capacity <<= 1;
+        }
+        nameIndex = new int[capacity];
+        for (int i = 0; i < count; i++) {
+            int slot = findSlot(hashName(namesPosition + nameOffsets[i]), namesPosition + nameOffsets[i]);
+            nameIndex[slot] = i + 1;
+        }
+    }
+
+    private int hashName(int position) {
+        int hash = 0;
+        for (int c = file.getByte(position); c != 0; c = file.getByte(++position)) {
+            hash = hash * 31 + c;
+        }
+        return hash;
+    }
+
+    private static int hashName(String name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = hash * 31 + name.charAt(i);
+        }
+        return hash;
+    }
+
+    private boolean nameEquals(int position, int otherPosition) {
+        while (true) {
+            int c = file.getByte(position++);
+            if (c != file.getByte(otherPosition++)) {
+                return false;
+            }
+            if (c == 0) {
+                return true;
+            }
+        }
+    }
+
+    private boolean nameEquals(int position, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (file.getByte(position + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return file.getByte(position + name.length()) == 0;
+    }
+
+    private int findSlot(int hash, int namePosition) {
+        int mask = nameIndex.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (nameIndex[slot] != 0
+                && !nameEquals(namesPosition + nameOffsets[nameIndex[slot] - 1], namePosition)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    public int indexOf(String name) {
+        int hash = hashName(name);
+        int mask = nameIndex.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (nameIndex[slot] != 0) {
+            int section = nameIndex[slot] - 1;
+            if (nameEquals(namesPosition + nameOffsets[section], name)) {
+                return section;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public String getName(int section) {
+        if (names[section] == null) {
+            names[section] = file.getString(namesPosition + nameOffsets[section]);
+        }
+        return names[section];
+    }
+
+    public int getNameOffset(int section) {
+        return nameOffsets[section];
+    }
+
+    public int getType(int section) {
+        return types[section];
+    }
+
+    public long getFlags(int section) {
+        return flags[section];
+    }
+
+    public boolean isExecutable(int section) {
+        return (flags[section] & SHF_EXECINSTR) != 0 && types[section] != SHT_NOBITS;
+    }
+
+    public long getAddress(int section) {
+        return addresses[section];
+    }
+
+    public int getOffset(int section) {
+        return offsets[section];
+    }
+
+    public int getSize(int section) {
+        return sizes[section];
+    }
+
+    public int getLink(int section) {
+        return links[section];
+    }
+
+    public int getInfo(int section) {
+        return infos[section];
+    }
+
+    public int getEntrySize(int section) {
+        return entrySizes[section];
+    }
+
+    public ELFFile getData(int section) {
+        return file.slice(offsets[section], types[section] == SHT_NOBITS ? 0 : sizes[section]);
+    }
+}
@@ -0,0 +1,170 @@
+package disasm;
+
+import java.util.Arrays;
+
+public class SymbolIndex {
+    private final long[] addresses;
+    private final long[] sizes;
+    private final int[] symbols;
+
+    public SymbolIndex(SymbolTable symbolTable, boolean functionsOnly) {
+        this(symbolTable, findCandidates(symbolTable, functionsOnly));
+    }
+
+    SymbolIndex(SymbolTable symbolTable, int[] candidates) {
+        int count = candidates.length;
+        sort(symbolTable, candidates, new int[count], 0, count);
+
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || symbolTable.getValue(candidates[unique - 1]) != symbolTable.getValue(candidates[i])) {
+                candidates[unique++] = candidates[i];
+            }
+        }
+        addresses = new long[unique];
+        sizes = new long[unique];
+        symbols = new int[unique];
+        for (int i = 0; i < unique; i++) {
+            symbols[i] = candidates[i];
+            addresses[i] = symbolTable.getValue(candidates[i]);
+            sizes[i] = symbolTable.getSize(candidates[i]);
+        }
+    }
+
+    public static SymbolIndex[] bySection(SymbolTable symbolTable, boolean functionsOnly) {
+        int[] candidates = findCandidates(symbolTable, functionsOnly);
+        int sectionCount = 0;
+        for (int symbol : candidates) {
+            if (symbolTable.getShndx(symbol) < SymbolTable.SHN_LORESERVE) {
+                sectionCount = Math.max(sectionCount, symbolTable.getShndx(symbol) + 1);
+            }
+        }
+        int[] firsts = new int[sectionCount + 1];
+        for (int symbol : candidates) {
+            if (symbolTable.getShndx(symbol) < sectionCount) {
+                firsts[symbolTable.getShndx(symbol) + 1]++;
+            }
+        }
+        for (int section = 0; section < sectionCount; section++) {
+            firsts[section + 1] += firsts[section];
+        }
+        int[] grouped = new int[firsts[sectionCount]];
+        int[] next = Arrays.copyOf(firsts, sectionCount);
+        for (int symbol : candidates) {
+            if (symbolTable.getShndx(symbol) < sectionCount) {
+                grouped[next[symbolTable.getShndx(symbol)]++] = symbol;
+            }
+        }
+        SymbolIndex[] result = new SymbolIndex[sectionCount];
+        for (int section = 0; section < sectionCount; section++) {
+            result[section] = new SymbolIndex(symbolTable,
+                    Arrays.copyOfRange(grouped, firsts[section], firsts[section + 1]));
+        }
+        return result;
+    }
+
+    private static int[] findCandidates(SymbolTable symbolTable, boolean functionsOnly) {
+        int[] candidates = new int[symbolTable.size()];
+        int count = 0;
+        for (int i = 0; i < symbolTable.size(); i++) {
+            if (isIndexed(symbolTable, i, functionsOnly)) {
+                candidates[count++] = i;
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private static boolean isIndexed(SymbolTable symbolTable, int symbol, boolean functionsOnly) {
+        int type = symbolTable.getType(symbol);
+        if (functionsOnly) {
+            return type == SymbolTable.STT_FUNC;
+        }
+        return symbolTable.getShndx(symbol) != 0
+                && type != SymbolTable.STT_SECTION
+                && type != SymbolTable.STT_FILE
+                && symbolTable.hasName(symbol);
+    }
+
+    private static int getPriority(SymbolTable symbolTable, int symbol) {
+        int priority = switch (symbolTable.getType(symbol)) {
+            case SymbolTable.STT_FUNC -> 4;
+            case SymbolTable.STT_OBJECT -> 2;
+            default -> 0;
+        };
+        return priority + (symbolTable.getBind(symbol) == 0 ? 0 : 1);
+    }
+
+    private static int compare(SymbolTable symbolTable, int first, int second) {
+        int result = Long.compare(symbolTable.getValue(first), symbolTable.getValue(second));
+        if (result == 0) {
+            result = Integer.compare(getPriority(symbolTable, second), getPriority(symbolTable, first));
+        }
+        return result == 0 ? Integer.compare(second, first) : result;
+    }
+
+    private static void sort(SymbolTable symbolTable, int[] values, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(symbolTable, values, buffer, from, middle);
+        sort(symbolTable, values, buffer, middle, to);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compare(symbolTable, values[left], values[right]) <= 0)) {
+                buffer[i] = values[left++];
+            } else {
+                buffer[i] = values[right++];
+            }
+        }
+        System.arraycopy(buffer, from, values, from, to - from);
+    }
+
+    public int size() {
+        return addresses.length;
+    }
+
+    public long getAddress(int position) {
+        return addresses[position];
+    }
+
+    public long getSize(int position) {
+        return sizes[position];
+    }
+
+    public int getSymbol(int position) {
+        return symbols[position];
+    }
+
+    public long[] getAddresses() {
+        return addresses.clone();
+    }
+
+    public int indexOf(long address) {
+        int position = floor(address);
+        return position >= 0 && addresses[position] == address ? position : -1;
+    }
+
+    public int indexContaining(long address) {
+        int position = floor(address);
+        if (position < 0 || sizes[position] == 0 || address - addresses[position] < sizes[position]) {
+            return position;
+        }
+        return -1;
+    }
+
+    public int floor(long address) {
+        int low = 0;
+        int high = addresses.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (addresses[middle] <= address) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,291 @@
+package disasm;
+
+public class SymbolTable {
+    public static final int STT_NOTYPE = 0;
+    public static final int STT_OBJECT = 1;
+    public static final int STT_FUNC = 2;
+    public static final int STT_SECTION = 3;
+    public static final int STT_FILE = 4;
+    public static final int SHN_LORESERVE = 0xff00;
+    public static final String GLOBAL_POINTER = "__global_pointer$";
+    private final ELFFile stringTable;
+    private final int[] names;
+    private final long[] values;
+    private final long[] sizes;
+    private final byte[] infos;
+    private final byte[] others;
+    private final char[] shndxs;
+    private final String[] stringNames;
+    private int globalPointer = -2;
+    private final SymbolIndex functionIndex;
+    private final SymbolIndex addressIndex;
+    private final SymbolIndex[] functionIndexes;
+    private final SymbolIndex[] addressIndexes;
+    private final SymbolIndex emptyIndex;
+
+    public SymbolTable(ELFFile file, ELFLayout layout, int position, int count, ELFFile stringTable) {
+        this.stringTable = stringTable;
+        names = new int[count];
+        values = new long[count];
+        sizes = new long[count];
+        infos = new byte[count];
+        others = new byte[count];
+        shndxs = new char[count];
+        stringNames = new String[count];
+        int entrySize = layout.getSymbolEntrySize();
+        for (int i = 0; i < count; i++, position += entrySize) {
+            names[i] = file.getWord(position);
+            values[i] = layout.getAddress(file, position + layout.SYMBOL_VALUE);
+            sizes[i] = layout.getAddress(file, position + layout.SYMBOL_SIZE);
+            infos[i] = (byte) file.getByte(position + layout.SYMBOL_INFO);
+            others[i] = (byte) file.getByte(position + layout.SYMBOL_OTHER);
+            shndxs[i] = (char) file.getHalf(position + layout.SYMBOL_SHNDX);
+        }
+        this.functionIndex = new SymbolIndex(this, true);
+        this.addressIndex = new SymbolIndex(this, false);
+        boolean relocatable = file.getHalf(16) == RelocationTable.ET_REL;
+        this.functionIndexes = relocatable ? SymbolIndex.bySection(this, true) : null;
+        this.addressIndexes = relocatable ? SymbolIndex.bySection(this, false) : null;
+        this.emptyIndex = new SymbolIndex(this, new int[0]);
+    }
+
+    public void write(AsciiWriter out) {
+        out.put("Symbol Value              Size Type 	Bind 	 Vis   	   Index Name\n");
+        for (int i = 0; i < values.length; i++) {
+            long value = values[i];
+            String type = getTypeName(getType(i));
+            String bind = getBindName(getBind(i));
+            String visibility = getVisibilityName(getVisibility(i));
+            out.put('[').putSpaces(4 - AsciiWriter.decimalLength(i)).putDecimal(i).put("] 0x")
+                    .putUpperHex(value, 1).putSpaces(16 - AsciiWriter.hexLength(value))
+                    .putSpaces(5 - AsciiWriter.decimalLength(sizes[i])).putDecimal(sizes[i]).put(' ')
+                    .put(type).putSpaces(9 - type.length())
+                    .put(bind).putSpaces(9 - bind.length())
+                    .put(visibility).putSpaces(9 - visibility.length());
+            putShndx(out, shndxs[i]);
+            appendName(out, i);
+            out.put('\n');
+        }
+    }
+
+    @Override
+    public String toString() {
+        AsciiWriter result = new AsciiWriter();
+        write(result);
+        return result.toString();
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public int getName(int symbol) {
+        return names[symbol];
+    }
+
+    public long getValue(int symbol) {
+        return values[symbol];
+    }
+
+    public long getSize(int symbol) {
+        return sizes[symbol];
+    }
+
+    public int getInfo(int symbol) {
+        return infos[symbol] & 0xff;
+    }
+
+    public int getOther(int symbol) {
+        return others[symbol] & 0xff;
+    }
+
+    public int getShndx(int symbol) {
+        return shndxs[symbol];
+    }
+
+    public int getType(int symbol) {
+        return infos[symbol] & 0xf;
+    }
+
+    public int getBind(int symbol) {
+        return (infos[symbol] & 0xff) >> 4;
+    }
+
+    public int getVisibility(int symbol) {
+        return others[symbol] & 0x3;
+    }
+
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (nameEquals(names[i], name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int indexOfGlobalPointer() {
+        if (globalPointer == -2) {
+            globalPointer = indexOf(GLOBAL_POINTER);
+        }
+        return globalPointer;
+    }
+
+    private boolean nameEquals(int position, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (stringTable.getByte(position + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return stringTable.getByte(position + name.length()) == 0;
+    }
+
+    public boolean hasName(int symbol) {
+        return stringTable.getByte(names[symbol]) != 0;
+    }
+
+    public boolean isRelocatable() {
+        return functionIndexes != null;
+    }
+
+    public long[] getFunctionAddresses() {
+        return functionIndex.getAddresses();
+    }
+
+    public long[] getFunctionAddresses(int section) {
+        return getFunctionIndex(section).getAddresses();
+    }
+
+    public String getAddressName(long address) {
+        return getAddressName(functionIndex, address);
+    }
+
+    public String getAddressName(int section, long address) {
+        return getAddressName(getFunctionIndex(section), address);
+    }
+
+    private String getAddressName(SymbolIndex index, long address) {
+        int position = index.indexOf(address);
+        return position < 0 ? "" : getSymbolName(index.getSymbol(position));
+    }
+
+    public String getSymbolName(int symbol) {
+        String name = stringNames[symbol];
+        if (name == null) {
+            name = stringTable.getString(names[symbol]);
+            stringNames[symbol] = name;
+        }
+        return name;
+    }
+
+    public SymbolIndex getFunctionIndex() {
+        return functionIndex;
+    }
+
+    public SymbolIndex getAddressIndex() {
+        return addressIndex;
+    }
+
+    public SymbolIndex getFunctionIndex(int section) {
+        return getIndex(functionIndexes, functionIndex, section);
+    }
+
+    public SymbolIndex getAddressIndex(int section) {
+        return getIndex(addressIndexes, addressIndex, section);
+    }
+
+    private SymbolIndex getIndex(SymbolIndex[] sections, SymbolIndex whole, int section) {
+        if (sections == null || section < 0) {
+            return whole;
+        }
+        return section < sections.length ? sections[section] : emptyIndex;
+    }
+
+    public boolean appendSymbolReference(AsciiWriter out, long address) {
+        return appendSymbolReference(out, addressIndex, address);
+    }
+
+    public boolean appendSymbolReference(AsciiWriter out, int section, long address) {
+        return appendSymbolReference(out, getAddressIndex(section), address);
+    }
+
+    private boolean appendSymbolReference(AsciiWriter out, SymbolIndex index, long address) {
+        int position = index.indexContaining(address);
+        if (position < 0) {
+            return false;
+        }
+        appendName(out.put(" <"), index.getSymbol(position));
+        long offset = address - index.getAddress(position);
+        if (offset != 0) {
+            out.put("+0x").putHex(offset, 1);
+        }
+        out.put('>');
+        return true;
+    }
+
+    public void appendName(AsciiWriter out, int symbol) {
+        int name = names[symbol];
+        out.put(stringTable.getBytes(name, stringTable.getStringLength(name)));
+    }
+
+    private static void putShndx(AsciiWriter out, int shndx) {
+        String name = switch (shndx) {
+            case 0 -> "UNDEF";
+            case 0xff00 -> "LORESERVE";
+            case 0xff01 -> "AFTER";
+            case 0xff02 -> "AMD64_LCOMMON";
+            case 0xff1f -> "HIPROC";
+            case 0xff20 -> "LOOS";
+            case 0xff3f -> "HIOS";
+            case 0xfff1 -> "ABS";
+            case 0xfff2 -> "COMMON";
+            case 0xffff -> "XINDEX";
+            default -> null;
+        };
+        if (name == null) {
+            out.putSpaces(6 - AsciiWriter.decimalLength(shndx)).putDecimal(shndx).put(' ');
+        } else {
+            out.putSpaces(6 - name.length()).put(name).put(' ');
+        }
+    }
+
+    public static String getTypeName(int type) {
+        return switch (type) {
+            case 0 -> "NOTYPE";
+            case 1 -> "OBJECT";
+            case 2 -> "FUNC";
+            case 3 -> "SECTION";
+            case 4 -> "FILE";
+            case 5 -> "COMMON";
+            case 6 -> "TLS";
+            case 10 -> "LOOS";
+            case 12 -> "HIOS";
+            case 13 -> "LOPROC";
+            case 15 -> "HIPROC";
+            default -> throw new UnsupportedOperationException("Unsupported symtab segment type");
+        };
+    }
+
+    public static String getBindName(int bind) {
+        return switch (bind) {
+            case 0 -> "LOCAL";
+            case 1 -> "GLOBAL";
+            case 2 -> "WEAK";
+            case 10 -> "LOOS";
+            case 12 -> "HIOS";
+            case 13 -> "LOPROC";
+            case 15 -> "HIPROC";
+            default -> throw new UnsupportedOperationException("Unsupported symtab segment bind");
+        };
+    }
+
+    public static String getVisibilityName(int visibility) {
+        return switch (visibility) {
+            case 0 -> "DEFAULT";
+            case 1 -> "INTERNAL";
+            case 2 -> "HIDDEN";
+            case 3 -> "PROTECTED";
+            default -> throw new UnsupportedOperationException("Unsupported symtab segment visibility");
+        };
+    }
+}
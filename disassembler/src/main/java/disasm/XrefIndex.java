@@ -0,0 +1,231 @@
+package disasm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class XrefIndex {
+    public static final int MAGIC = 0x46525852;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final byte BRANCH = 0;
+    public static final byte JUMP = 1;
+    public static final byte CALL = 2;
+    private final long[] targets;
+    private final int[] offsets;
+    private final long[] sources;
+    private final byte[] kinds;
+
+    private XrefIndex(long[] targets, int[] offsets, long[] sources, byte[] kinds) {
+        this.targets = targets;
+        this.offsets = offsets;
+        this.sources = sources;
+        this.kinds = kinds;
+    }
+
+    public XrefIndex(Disassembly disassembly) {
+        long[] referenceTargets = new long[16];
+        long[] referenceSources = new long[16];
+        byte[] referenceKinds = new byte[16];
+        int count = 0;
+        for (int s = 0; s < disassembly.getSectionCount(); s++) {
+            SectionDisassembly section = disassembly.getSection(s);
+            for (int i = 0; i < section.getCount(); i++) {
+                byte kind = getKind(section, i);
+                if (kind < 0) {
+                    continue;
+                }
+                if (count == referenceTargets.length) {
+                    referenceTargets = Arrays.copyOf(referenceTargets, count * 2);
+                    referenceSources = Arrays.copyOf(referenceSources, count * 2);
+                    referenceKinds = Arrays.copyOf(referenceKinds, count * 2);
+                }
+                referenceTargets[count] = getTarget(section, i);
+                referenceSources[count] = section.getAddress(i);
+                referenceKinds[count++] = kind;
+            }
+        }
+
+        long[] sorted = Arrays.copyOf(referenceTargets, count);
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || sorted[unique - 1] != sorted[i]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        targets = Arrays.copyOf(sorted, unique);
+        offsets = new int[targets.length + 1];
+        sources = new long[count];
+        kinds = new byte[count];
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = Arrays.binarySearch(targets, referenceTargets[i]);
+            offsets[positions[i] + 1]++;
+        }
+        for (int i = 0; i < targets.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = Arrays.copyOf(offsets, targets.length);
+        for (int i = 0; i < count; i++) {
+            int slot = next[positions[i]]++;
+            sources[slot] = referenceSources[i];
+            kinds[slot] = referenceKinds[i];
+        }
+    }
+
+    private static byte getKind(SectionDisassembly section, int number) {
+        long instruction = section.getInstruction(number);
+        return switch (DecodedInstruction.getMnemonic(instruction).getFormat()) {
+            case BRANCH -> section.isRelocated(number) ? -1 : BRANCH;
+            case JAL -> {
+                if (section.isRelocated(number)) {
+                    yield -1;
+                }
+                yield DecodedInstruction.getRd(instruction) == 0 ? JUMP : CALL;
+            }
+            case JALR -> {
+                if (!section.hasMaterializedAddress(number) || section.isRelocated(number - 1)) {
+                    yield -1;
+                }
+                yield DecodedInstruction.getRd(instruction) == 0 ? JUMP : CALL;
+            }
+            default -> -1;
+        };
+    }
+
+    private static long getTarget(SectionDisassembly section, int number) {
+        if (DecodedInstruction.getMnemonic(section.getInstruction(number)) == Mnemonic.JALR) {
+            return section.getMaterializedAddress(number);
+        }
+        return section.getTarget(number);
+    }
+
+    public int getTargetCount() {
+        return targets.length;
+    }
+
+    public int getReferenceCount() {
+        return sources.length;
+    }
+
+    public long getTarget(int position) {
+        return targets[position];
+    }
+
+    public int getFirstReference(int position) {
+        return offsets[position];
+    }
+
+    public int getLastReference(int position) {
+        return offsets[position + 1];
+    }
+
+    public long getSource(int reference) {
+        return sources[reference];
+    }
+
+    public byte getKind(int reference) {
+        return kinds[reference];
+    }
+
+    public int indexOf(long target) {
+        int position = Arrays.binarySearch(targets, target);
+        return position < 0 ? -1 : position;
+    }
+
+    public int getSourceCount(long target) {
+        int position = indexOf(target);
+        return position < 0 ? 0 : offsets[position + 1] - offsets[position];
+    }
+
+    public long[] getSources(long target) {
+        int position = indexOf(target);
+        return position < 0 ? new long[0] : Arrays.copyOfRange(sources, offsets[position], offsets[position + 1]);
+    }
+
+    public long[] getSources(long target, byte kind) {
+        int position = indexOf(target);
+        if (position < 0) {
+            return new long[0];
+        }
+        long[] result = new long[offsets[position + 1] - offsets[position]];
+        int count = 0;
+        for (int i = offsets[position]; i < offsets[position + 1]; i++) {
+            if (kinds[i] == kind) {
+                result[count++] = sources[i];
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    public void write(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(AsciiWriter.DEFAULT_CAPACITY).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(targets.length).putInt(sources.length);
+            for (long target : targets) {
+                ensure(channel, buffer, Long.BYTES);
+                buffer.putLong(target);
+            }
+            for (int offset : offsets) {
+                ensure(channel, buffer, Integer.BYTES);
+                buffer.putInt(offset);
+            }
+            for (long source : sources) {
+                ensure(channel, buffer, Long.BYTES);
+                buffer.putLong(source);
+            }
+            for (byte kind : kinds) {
+                ensure(channel, buffer, Byte.BYTES);
+                buffer.put(kind);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public static XrefIndex read(Path path) throws IOException {
+        ELFFile file = ELFFile.map(path);
+        if (file.size() < HEADER_SIZE || file.getWord(0) != MAGIC || file.getWord(4) != VERSION) {
+            throw new IOException("Not a cross-reference index: " + path);
+        }
+        int targetCount = file.getWord(8);
+        int referenceCount = file.getWord(12);
+        long size = HEADER_SIZE + (long) targetCount * Long.BYTES + (targetCount + 1L) * Integer.BYTES
+                + (long) referenceCount * (Long.BYTES + Byte.BYTES);
+        if (targetCount < 0 || referenceCount < 0 || file.size() != size) {
+            throw new IOException("Truncated cross-reference index: " + path);
+        }
+        long[] targets = new long[targetCount];
+        int[] offsets = new int[targetCount + 1];
+        long[] sources = new long[referenceCount];
+        byte[] kinds = new byte[referenceCount];
+        int position = HEADER_SIZE;
+        file.getBytes(position, targets.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(targets);
+        position += targets.length * Long.BYTES;
+        file.getBytes(position, offsets.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(offsets);
+        position += offsets.length * Integer.BYTES;
+        file.getBytes(position, sources.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(sources);
+        position += sources.length * Long.BYTES;
+        file.getBytes(position, kinds.length).get(kinds);
+        return new XrefIndex(targets, offsets, sources, kinds);
+    }
+}